@@ -0,0 +1,27 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of benchmarks.jar: the JMH command line, except that results are
+ * written as JSON (to jmh-result.json unless -rff says otherwise) when no
+ * result format is given, so every run leaves a file regressions can be
+ * tracked from.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        List<String> all = new ArrayList<>(Arrays.asList(args));
+        if (!all.contains("-rf")) {
+            all.add(0, "json");
+            all.add(0, "-rf");
+            if (!all.contains("-rff")) {
+                all.add("-rff");
+                all.add("jmh-result.json");
+            }
+        }
+        org.openjdk.jmh.Main.main(all.toArray(new String[0]));
+    }
+}
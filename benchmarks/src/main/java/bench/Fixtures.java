@@ -0,0 +1,161 @@
+package bench;
+
+import logging.MappedMoveLog;
+import logging.MoveJournal;
+import logging.MoveLog;
+import logging.MoveRecord;
+import model.Board;
+import storage.Durability;
+import storage.MultiBoardReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Boards and move logs shared by the benchmarks, taken from the repository's
+ * own data so the numbers reflect real games: the solved grids and labelled
+ * puzzles in sudoku_boards_*.csv and the catalogue in games/.
+ * The repository root comes from -Dsudoku.bench.data (default "..", i.e.
+ * benchmarks are run from the benchmarks/ folder).
+ */
+final class Fixtures {
+
+    static final String DATA_PROPERTY = "sudoku.bench.data";
+
+    private Fixtures() {
+    }
+
+    static Path dataDir() {
+        Path dir = Paths.get(System.getProperty(DATA_PROPERTY, ".."));
+        if (!Files.isDirectory(dir.resolve("games"))) {
+            throw new IllegalStateException("No games/ folder under " + dir.toAbsolutePath()
+                    + "; set -D" + DATA_PROPERTY + "=<repository dir>");
+        }
+        return dir;
+    }
+
+    /** The first complete, valid grid labelled SOLVED in the exports. */
+    static Board solved() {
+        return firstExported(MultiBoardReader.Section.SOLVED, -1);
+    }
+
+    /** The solved grid with one cell overwritten by its row neighbour's digit. */
+    static Board invalid() {
+        Board b = solved();
+        b.set(4, 4, b.get(4, 5));
+        return b;
+    }
+
+    /** A catalogue puzzle from games/easy. */
+    static Board incomplete() {
+        try (Stream<Path> files = Files.list(dataDir().resolve("games").resolve("easy"))) {
+            Path first = files.filter(p -> p.toString().endsWith(".csv")).min(Comparator.naturalOrder())
+                    .orElseThrow(() -> new IllegalStateException("games/easy has no games"));
+            return Board.fromCSV(first.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** The solved grid with 5 cells cleared: the in-game Solve case. */
+    static Board fiveBlanks() {
+        Board b = solved();
+        int[][] cells = {{0, 0}, {2, 7}, {4, 4}, {6, 1}, {8, 8}};
+        for (int[] rc : cells) b.set(rc[0], rc[1], 0);
+        return b;
+    }
+
+    /** A 21-clue (60 blank) HARD puzzle from the exports. */
+    static Board sixtyBlanks() {
+        return firstExported(MultiBoardReader.Section.HARD, 60);
+    }
+
+    // First exported board of the section, optionally with exactly `zeros` empty cells.
+    private static Board firstExported(MultiBoardReader.Section section, int zeros) {
+        List<Path> exports = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dataDir())) {
+            files.filter(p -> p.getFileName().toString().matches("sudoku_boards_.*\\.csv"))
+                    .sorted()
+                    .forEach(exports::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Board[] found = new Board[1];
+        MultiBoardReader reader = new MultiBoardReader();
+        for (Path p : exports) {
+            try {
+                reader.read(p, (board, s) -> {
+                    if (found[0] == null && s == section && (zeros < 0 || board.countZeros() == zeros)) {
+                        found[0] = new Board(board);
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (found[0] != null) return found[0];
+        }
+        throw new IllegalStateException("No " + section + " board"
+                + (zeros < 0 ? "" : " with " + zeros + " blanks") + " in the sudoku_boards_*.csv files");
+    }
+
+    static Board board(String kind) {
+        switch (kind) {
+            case "valid": return solved();
+            case "invalid": return invalid();
+            case "incomplete": return incomplete();
+            case "5": return fiveBlanks();
+            case "60": return sixtyBlanks();
+            default: throw new IllegalArgumentException("Unknown fixture: " + kind);
+        }
+    }
+
+    /**
+     * A fresh move log of the given format ("text" or "binary") holding `moves`
+     * random moves, opened at Durability.NONE so nothing is forced to disk.
+     */
+    static MoveJournal moveLog(Path dir, String format, int moves) throws IOException {
+        Path path = dir.resolve("current.log");
+        MoveJournal log = format.equals("binary") ? new MappedMoveLog(path, Durability.NONE)
+                : new MoveLog(path, Durability.NONE);
+        log.ensureExists();
+        log.clear();
+
+        SplittableRandom rng = new SplittableRandom(moves);
+        if (format.equals("text")) {
+            // one write instead of `moves` appends; reopen() drops the index clear() left behind
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < moves; i++) sb.append(randomMove(rng).toLogLine()).append('\n');
+            Files.writeString(path, sb);
+            log.reopen();
+        } else {
+            for (int i = 0; i < moves; i++) log.append(randomMove(rng));
+        }
+        return log;
+    }
+
+    static MoveRecord randomMove(SplittableRandom rng) {
+        return new MoveRecord(1 + rng.nextInt(9), 1 + rng.nextInt(9), rng.nextInt(10), rng.nextInt(10));
+    }
+
+    static Path tempDir(String prefix) throws IOException {
+        return Files.createTempDirectory(prefix);
+    }
+
+    static void deleteRecursively(Path dir) throws IOException {
+        if (dir == null || !Files.exists(dir)) return;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            for (Path p : walk.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package bench;
+
+import logging.MoveJournal;
+import logging.MoveRecord;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Undo (popLast), move (append) and resume replay (readAll) on text and
+ * binary logs of 10, 1k and 100k moves. Undo is measured together with the
+ * append that restores the log, so its length stays fixed across iterations.
+ * The logs never fsync, so this compares the formats; StorageBenchmark covers
+ * the durability levels.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveLogBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int moves;
+
+    @Param({"text", "binary"})
+    public String format;
+
+    private Path dir;
+    private MoveJournal log;
+    private MoveRecord move;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Fixtures.tempDir("sudoku-bench-log");
+        log = Fixtures.moveLog(dir, format, moves);
+        move = Fixtures.randomMove(new SplittableRandom(1));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        if (log instanceof AutoCloseable) ((AutoCloseable) log).close();
+        Fixtures.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public MoveRecord popLastAndAppend() throws IOException {
+        MoveRecord last = log.popLast();
+        log.append(last);
+        return last;
+    }
+
+    @Benchmark
+    public MoveRecord appendAndPopLast() throws IOException {
+        log.append(move);
+        return log.popLast();
+    }
+
+    @Benchmark
+    public List<MoveRecord> readAll() throws IOException {
+        return log.readAll();
+    }
+}
@@ -0,0 +1,70 @@
+package bench;
+
+import model.Board;
+import org.openjdk.jmh.annotations.*;
+import solver.BitmaskSolver;
+import solver.BruteForceSolver;
+import solver.SolutionCache;
+import solver.SudokuSolver;
+import verifier.BoardVerifier;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Solving the in-game 5-blank case and a 60-blank (21-clue) puzzle with each
+ * search strategy, plus the uniqueness count used by generation and import.
+ * The solution cache is disabled so every call searches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SolverBenchmark {
+
+    @Param({"5", "60"})
+    public String blanks;
+
+    @Param({"bitmask", "dlx"})
+    public String strategy;
+
+    private SudokuSolver solver;
+    private final BitmaskSolver counter = new BitmaskSolver(); // counting is bitmask-only
+    private Board puzzle;
+
+    @Setup
+    public void setUp() {
+        solver = new SudokuSolver(SudokuSolver.strategyFor(strategy, new BoardVerifier()), new SolutionCache(0));
+        puzzle = Fixtures.board(blanks);
+    }
+
+    @Benchmark
+    public Board solve() {
+        return solver.solve(puzzle);
+    }
+
+    @Benchmark
+    public int countSolutionsUpToTwo() {
+        return counter.countSolutions(puzzle, 2);
+    }
+
+    /** The original 9^k enumeration; only feasible for the 5-blank board. */
+    @State(Scope.Thread)
+    public static class BruteForce {
+        SudokuSolver solver;
+        Board puzzle;
+
+        @Setup
+        public void setUp() {
+            solver = new SudokuSolver(new BruteForceSolver(new BoardVerifier()), new SolutionCache(0));
+            puzzle = Fixtures.fiveBlanks();
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Board bruteForceFiveBlanks(BruteForce s) {
+        return s.solver.solve(s.puzzle);
+    }
+}
@@ -0,0 +1,62 @@
+package bench;
+
+import model.Board;
+import org.openjdk.jmh.annotations.*;
+import storage.Durability;
+import storage.GameStorage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing current.csv at each durability level, the write-behind path that
+ * moves use, and loading a board back. Runs in a temp directory, so the
+ * numbers are those of the file system holding java.io.tmpdir.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StorageBenchmark {
+
+    @Param({"NONE", "DATA", "FULL"})
+    public String durability;
+
+    private Path dir;
+    private GameStorage storage;
+    private Board board;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Fixtures.tempDir("sudoku-bench-storage");
+        storage = new GameStorage(dir, Durability.valueOf(durability));
+        storage.ensureFolderStructure();
+        board = Fixtures.incomplete();
+        storage.saveCurrentBoard(board);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        storage.flushPendingWrites();
+        Fixtures.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public void saveCurrentBoard() throws IOException {
+        storage.saveCurrentBoard(board);
+    }
+
+    // what a move costs the caller; the write itself happens on the write-behind thread
+    @Benchmark
+    public void saveCurrentBoardAsync() {
+        storage.saveCurrentBoardAsync(board);
+    }
+
+    @Benchmark
+    public Board loadBoard() throws IOException {
+        return storage.loadBoard(storage.currentBoardPath());
+    }
+}
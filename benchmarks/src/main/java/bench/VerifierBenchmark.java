@@ -0,0 +1,58 @@
+package bench;
+
+import model.Board;
+import model.VerificationResult;
+import model.VerificationStatus;
+import org.openjdk.jmh.annotations.*;
+import verifier.BoardVerifier;
+import verifier.IncrementalVerifier;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full verification, the allocation-free status scan, and the incremental
+ * tracker GameController uses per move, on valid, invalid and incomplete boards.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VerifierBenchmark {
+
+    @Param({"valid", "invalid", "incomplete"})
+    public String board;
+
+    private final BoardVerifier verifier = new BoardVerifier();
+    private final IncrementalVerifier tracker = new IncrementalVerifier();
+    private Board fixture;
+    private int flipValue;
+
+    @Setup
+    public void setUp() {
+        fixture = Fixtures.board(board);
+        tracker.reset(fixture);
+        flipValue = fixture.get(0, 0) == 9 ? 1 : fixture.get(0, 0) + 1;
+    }
+
+    @Benchmark
+    public VerificationResult verify() {
+        return verifier.verify(fixture);
+    }
+
+    @Benchmark
+    public VerificationStatus status() {
+        return verifier.status(fixture);
+    }
+
+    // one move and its undo, as the tracker sees them
+    @Benchmark
+    public VerificationStatus incrementalMoveAndUndo() {
+        int old = fixture.get(0, 0);
+        tracker.update(0, 0, old, flipValue);
+        VerificationStatus s = tracker.status();
+        tracker.update(0, 0, flipValue, old);
+        return s;
+    }
+}
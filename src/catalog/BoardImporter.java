@@ -0,0 +1,228 @@
+package catalog;
+
+import model.Board;
+import model.BoardCanonicalizer;
+import model.Difficulty;
+import model.VerificationStatus;
+import solver.BitmaskSolver;
+import solver.TechniqueGrader;
+import storage.GameStorage;
+import storage.MultiBoardReader;
+import storage.PuzzlePack;
+import verifier.BoardVerifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Imports puzzles from multi-board CSV exports (or single-board CSVs, or
+ * directories of either) into the catalogue's puzzle packs.
+ * Every board is verified: duplicates within a unit, no solution or more than
+ * one solution reject it, and complete grids are skipped since they are not
+ * puzzles. A puzzle goes to the difficulty its section label names; unlabelled
+ * puzzles, or all of them when regrading, are rated by {@link TechniqueGrader}.
+ * Boards are streamed by {@link MultiBoardReader} and appended straight to the
+ * packs, so memory does not grow with the input (except for the optional
+ * duplicate filter, which keeps one hash per distinct puzzle).
+ *
+ * Usage: java catalog.BoardImporter [--games dir] [--regrade] [--dedupe] file-or-dir...
+ */
+public class BoardImporter {
+
+    /** Counts for one import run. */
+    public static final class Report {
+        private final Map<Difficulty, Long> imported = new EnumMap<>(Difficulty.class);
+        private long read;
+        private long solved;
+        private long invalid;
+        private long ambiguous;
+        private long duplicates;
+        private long malformed;
+        private long nanos;
+
+        public long getRead() { return read; }
+        public long getSolved() { return solved; }
+        public long getInvalid() { return invalid; }
+        public long getAmbiguous() { return ambiguous; }
+        public long getDuplicates() { return duplicates; }
+        public long getMalformed() { return malformed; }
+        public long getNanos() { return nanos; }
+
+        public long getImported(Difficulty d) {
+            return imported.getOrDefault(d, 0L);
+        }
+
+        public long getImported() {
+            long sum = 0;
+            for (long n : imported.values()) sum += n;
+            return sum;
+        }
+
+        @Override
+        public String toString() {
+            double seconds = nanos / 1e9;
+            return String.format("read=%d, imported=%d %s, solved grids=%d, invalid=%d, ambiguous=%d, "
+                            + "duplicates=%d, malformed=%d in %.2fs (%.0f boards/s)",
+                    read, getImported(), imported, solved, invalid, ambiguous, duplicates, malformed,
+                    seconds, seconds == 0 ? 0.0 : read / seconds);
+        }
+    }
+
+    private final GameStorage storage;
+    private final boolean regrade;
+    private final boolean dedupe;
+
+    private final BoardVerifier verifier = new BoardVerifier();
+    private final BitmaskSolver uniqueness = new BitmaskSolver();
+    private final TechniqueGrader grader = new TechniqueGrader();
+    private final BoardCanonicalizer canonicalizer = new BoardCanonicalizer();
+
+    public BoardImporter(GameStorage storage) {
+        this(storage, false, false);
+    }
+
+    /**
+     * @param regrade grade every puzzle instead of trusting section labels
+     * @param dedupe  drop puzzles equivalent (under the Sudoku symmetries) to one
+     *                already imported in this run; costs a canonicalization per puzzle
+     */
+    public BoardImporter(GameStorage storage, boolean regrade, boolean dedupe) {
+        this.storage = storage;
+        this.regrade = regrade;
+        this.dedupe = dedupe;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path games = Paths.get("games");
+        boolean regrade = false;
+        boolean dedupe = false;
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--games":
+                    if (++i == args.length) usage();
+                    games = Paths.get(args[i]);
+                    break;
+                case "--regrade": regrade = true; break;
+                case "--dedupe": dedupe = true; break;
+                default: inputs.add(Paths.get(args[i]));
+            }
+        }
+        if (inputs.isEmpty()) usage();
+
+        GameStorage storage = new GameStorage(games);
+        storage.ensureFolderStructure();
+        System.out.println(new BoardImporter(storage, regrade, dedupe).importAll(inputs));
+    }
+
+    private static void usage() {
+        System.err.println("Usage: java catalog.BoardImporter [--games dir] [--regrade] [--dedupe] file-or-dir...");
+        System.exit(2);
+    }
+
+    /** Imports every CSV file under the given files and directories (directories are walked). */
+    public Report importAll(List<Path> inputs) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path in : inputs) {
+            if (Files.isDirectory(in)) {
+                try (Stream<Path> walk = Files.walk(in)) {
+                    files.addAll(walk.filter(Files::isRegularFile)
+                            .filter(p -> p.getFileName().toString().toLowerCase().endsWith(".csv"))
+                            .filter(p -> !isInProgressGame(p))
+                            .sorted()
+                            .collect(Collectors.toList()));
+                }
+            } else {
+                files.add(in);
+            }
+        }
+
+        long start = System.nanoTime();
+        Report report = new Report();
+        MultiBoardReader reader = new MultiBoardReader();
+        Set<Board> seen = dedupe ? new HashSet<>() : null;
+        Map<Difficulty, PuzzlePack.Appender> packs = new EnumMap<>(Difficulty.class);
+
+        storage.invalidateGameIndex(); // packs are about to change under the index
+        try {
+            for (Path file : files) {
+                reader.read(file, (board, section) -> route(board, section, report, seen, packs));
+            }
+        } finally {
+            for (PuzzlePack.Appender a : packs.values()) a.close();
+            storage.invalidateGameIndex();
+        }
+
+        report.malformed = reader.getMalformedCount();
+        report.nanos = System.nanoTime() - start;
+        return report;
+    }
+
+    // games/incomplete holds the game being played, not catalogue material
+    private static boolean isInProgressGame(Path file) {
+        Path parent = file.getParent();
+        return parent != null && parent.getFileName() != null
+                && parent.getFileName().toString().equals(GameStorage.INCOMPLETE_FOLDER);
+    }
+
+    private void route(Board board, MultiBoardReader.Section section, Report report, Set<Board> seen,
+                       Map<Difficulty, PuzzlePack.Appender> packs) throws IOException {
+        report.read++;
+
+        VerificationStatus status = verifier.status(board);
+        if (status == VerificationStatus.INVALID) {
+            report.invalid++;
+            return;
+        }
+        if (status == VerificationStatus.VALID) {
+            report.solved++; // a complete grid, not a puzzle
+            return;
+        }
+
+        int solutions = uniqueness.countSolutions(board, 2);
+        if (solutions == 0) {
+            report.invalid++;
+            return;
+        }
+        if (solutions > 1) {
+            report.ambiguous++;
+            return;
+        }
+
+        // keyed on the canonical board itself, so a Zobrist collision cannot drop a distinct puzzle
+        if (seen != null && !seen.add(canonicalizer.canonicalize(board))) {
+            report.duplicates++;
+            return;
+        }
+
+        Difficulty d = labelled(section);
+        if (d == null || regrade) d = grader.grade(board).difficulty();
+
+        PuzzlePack.Appender pack = packs.get(d);
+        if (pack == null) {
+            pack = PuzzlePack.Appender.open(storage.packPath(d));
+            packs.put(d, pack);
+        }
+        pack.add(board);
+        report.imported.merge(d, 1L, Long::sum);
+    }
+
+    private static Difficulty labelled(MultiBoardReader.Section section) {
+        switch (section) {
+            case EASY: return Difficulty.EASY;
+            case MEDIUM: return Difficulty.MEDIUM;
+            case HARD: return Difficulty.HARD;
+            default: return null;
+        }
+    }
+}
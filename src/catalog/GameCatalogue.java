@@ -35,13 +35,13 @@ public class GameCatalogue {
         if (!storage.hasUnfinishedGame()) {
             throw new IOException("No unfinished game found.");
         }
+        storage.flushPendingWrites(); // a background save may still be on its way
         return storage.loadBoard(storage.currentBoardPath());
     }
 
-    // Load one game from selected difficulty (random)
+    // Load one game from selected difficulty (random), uniformly over the pack and the CSV files
     public Board getGame(Difficulty difficulty) throws IOException {
-        Path picked = storage.pickRandomGameFile(difficulty);
-        return storage.loadBoard(picked);
+        return storage.loadRandomGame(difficulty);
     }
 
     // If later you want the chosen file path too:
@@ -1,91 +1,233 @@
 package controller;
 
-import logging.MoveLog;
+import logging.MoveJournal;
 import logging.MoveRecord;
+import metrics.LatencyHistogram;
+import metrics.Metrics;
+import metrics.VerifyEvent;
 import model.Board;
 import model.FixedCells;
 import model.VerificationResult;
+import model.VerificationStatus;
 import solver.SudokuSolver;
 import storage.GameStorage;
 import verifier.BoardVerifier;
+import verifier.IncrementalVerifier;
 
 import java.io.IOException;
+import java.util.List;
 
 public class GameController {
 
+    private static final LatencyHistogram APPLY_MOVE = Metrics.histogram("controller.applyMove");
+    private static final LatencyHistogram UNDO = Metrics.histogram("controller.undo");
+    private static final LatencyHistogram VERIFY = Metrics.histogram("controller.verify");
+    private static final LatencyHistogram SOLVE = Metrics.histogram("controller.solve");
+
     private final GameStorage storage;
     private final BoardVerifier verifier;
-    private final MoveLog moveLog;
+    private MoveJournal moveLog; // opened on first use, see journal()
+    private long journalDeletions; // storage.currentGameDeletions() as last seen by moveLog
     private final SudokuSolver solver;
+    private final IncrementalVerifier tracker = new IncrementalVerifier();
 
     private FixedCells fixedCells;
+    private Board givens;       // the puzzle as started; keys the solver's solution cache
+    private Board trackedBoard; // the board whose unit counts `tracker` holds
 
     public GameController(GameStorage storage, BoardVerifier verifier) {
+        this(storage, verifier, new SudokuSolver(verifier));
+    }
+
+    public GameController(GameStorage storage, BoardVerifier verifier, SudokuSolver solver) {
         this.storage = storage;
         this.verifier = verifier;
-        this.moveLog = new MoveLog(storage.currentLogPath());
-        this.solver = new SudokuSolver(verifier);
+        this.solver = solver;
+    }
+
+    /*
+     * Opening the journal may convert a log left in the other format, so it
+     * waits until a game needs it. The journal trusts its index of the file, so
+     * it is reopened whenever storage has deleted the current game since.
+     */
+    private synchronized MoveJournal journal() throws IOException {
+        long deletions = storage.currentGameDeletions();
+        if (moveLog == null) {
+            moveLog = MoveJournal.forPath(storage.currentLogPath(), storage.getDurability());
+        } else if (deletions != journalDeletions) {
+            moveLog.reopen();
+        }
+        journalDeletions = deletions;
+        return moveLog;
     }
 
     public void startTrackingNewOrLoadedGame(Board board) throws IOException {
         storage.ensureFolderStructure();
         storage.clearIncompleteFolder();
         storage.saveCurrentBoard(board);
-        moveLog.ensureExists();
+        journal().ensureExists();
 
         this.fixedCells = new FixedCells(board);
+        this.givens = new Board(board);
+        track(board);
     }
 
     public void resumeTrackingExistingGame(Board board) throws IOException {
         storage.ensureFolderStructure();
-        moveLog.ensureExists();
+        journal().ensureExists();
 
-        this.fixedCells = new FixedCells(board);
-    }
+        List<MoveRecord> moves = journal().readAll();
+        if (replayUnsavedMoves(board, moves)) {
+            storage.saveCurrentBoard(board);
+        }
 
-    public boolean isFixedCell(int row1, int col1) {
-        return fixedCells != null && fixedCells.isFixed(row1, col1);
+        // The givens are what the board looked like before any logged move.
+        Board original = new Board(board);
+        for (int i = moves.size() - 1; i >= 0; i--) {
+            MoveRecord m = moves.get(i);
+            original.set(m.row1() - 1, m.col1() - 1, m.prevVal());
+        }
+        this.fixedCells = new FixedCells(original);
+        this.givens = original;
+        track(board);
     }
 
-    public void applyMove(Board board, int row1, int col1, int newVal) throws IOException {
-        if (row1 < 1 || row1 > 9 || col1 < 1 || col1 > 9) {
-            throw new IllegalArgumentException("Row/Col must be 1..9");
-        }
-        if (newVal < 0 || newVal > 9) {
-            throw new IllegalArgumentException("Value must be 0..9");
+    /**
+     * current.csv is written in the background, so after a crash it can lag
+     * behind the move log by a few moves. Finds the longest log prefix the
+     * saved board corresponds to and re-applies the moves after it.
+     * Returns true if the board was changed.
+     */
+    private boolean replayUnsavedMoves(Board board, List<MoveRecord> moves) {
+        for (int k = moves.size(); k >= 0; k--) {
+            if (k > 0) {
+                MoveRecord applied = moves.get(k - 1);
+                if (board.get(applied.row1() - 1, applied.col1() - 1) != applied.newVal()) continue;
+            }
+
+            Board probe = new Board(board);
+            boolean consistent = true;
+            for (int j = k; j < moves.size() && consistent; j++) {
+                MoveRecord m = moves.get(j);
+                int r = m.row1() - 1;
+                int c = m.col1() - 1;
+                consistent = probe.get(r, c) == m.prevVal();
+                probe.set(r, c, m.newVal());
+            }
+            if (!consistent) continue;
+
+            for (int j = k; j < moves.size(); j++) {
+                MoveRecord m = moves.get(j);
+                board.set(m.row1() - 1, m.col1() - 1, m.newVal());
+            }
+            return k < moves.size();
         }
+        return false; // the log does not describe this board; keep what was saved
+    }
 
-        if (isFixedCell(row1, col1)) {
-            throw new IllegalStateException("This cell is fixed and cannot be edited.");
+    // Re-reads the board only when a different board object shows up.
+    private void track(Board board) {
+        if (board != trackedBoard) {
+            tracker.reset(board);
+            trackedBoard = board;
         }
+    }
 
-        int r = row1 - 1;
-        int c = col1 - 1;
-
-        int prev = board.get(r, c);
-        if (prev == newVal) return;
-
-        board.set(r, c, newVal);
-
-        MoveRecord rec = new MoveRecord(row1, col1, newVal, prev);
-        moveLog.append(rec);
+    public boolean isFixedCell(int row1, int col1) {
+        return fixedCells != null && fixedCells.isFixed(row1, col1);
+    }
 
-        storage.saveCurrentBoard(board);
+    public void applyMove(Board board, int row1, int col1, int newVal) throws IOException {
+        long t = Metrics.start();
+        try {
+            if (row1 < 1 || row1 > 9 || col1 < 1 || col1 > 9) {
+                throw new IllegalArgumentException("Row/Col must be 1..9");
+            }
+            if (newVal < 0 || newVal > 9) {
+                throw new IllegalArgumentException("Value must be 0..9");
+            }
+
+            if (isFixedCell(row1, col1)) {
+                throw new IllegalStateException("This cell is fixed and cannot be edited.");
+            }
+
+            int r = row1 - 1;
+            int c = col1 - 1;
+
+            int prev = board.get(r, c);
+            if (prev == newVal) return;
+
+            track(board);
+            board.set(r, c, newVal);
+            tracker.update(r, c, prev, newVal);
+
+            MoveRecord rec = new MoveRecord(row1, col1, newVal, prev);
+            journal().append(rec);
+
+            // The log entry above is on disk already (unless durability is NONE);
+            // the board file can follow in the background.
+            storage.saveCurrentBoardAsync(board);
+        } finally {
+            APPLY_MOVE.recordSince(t);
+        }
     }
 
     public void undo(Board board) throws IOException {
-        MoveRecord last = moveLog.popLast();
-
-        int r = last.row1() - 1;
-        int c = last.col1() - 1;
-
-        board.set(r, c, last.prevVal());
+        long t = Metrics.start();
+        try {
+            MoveRecord last = journal().popLast();
+
+            int r = last.row1() - 1;
+            int c = last.col1() - 1;
+
+            track(board);
+            int current = board.get(r, c);
+            board.set(r, c, last.prevVal());
+            tracker.update(r, c, current, last.prevVal());
+
+            // Written synchronously: the popped move is gone from the log, so the
+            // saved board must never still contain it.
+            storage.saveCurrentBoard(board);
+        } finally {
+            UNDO.recordSince(t);
+        }
+    }
 
-        storage.saveCurrentBoard(board);
+    // Blocks until every queued board save has reached the disk.
+    public void flushPendingSaves() throws IOException {
+        storage.flushPendingWrites();
     }
 
     public VerificationResult verify(Board board) {
-        return verifier.verify(board);
+        long t = Metrics.start();
+        try {
+            if (board != trackedBoard) {
+                return verifier.verify(board);
+            }
+            VerifyEvent event = new VerifyEvent();
+            if (event.isEnabled()) event.begin();
+            VerificationStatus status = tracker.status();
+            event.end();
+            if (status != VerificationStatus.INVALID) {
+                if (event.shouldCommit()) {
+                    event.status = status.name();
+                    event.incremental = true;
+                    event.commit();
+                }
+                return VerificationResult.withoutDuplicates(status);
+            }
+            return verifier.verify(board); // full scan only to list the duplicates
+        } finally {
+            VERIFY.recordSince(t);
+        }
+    }
+
+    // O(1) for the board being played; other boards fall back to a full scan.
+    public VerificationStatus verificationStatus(Board board) {
+        if (board == trackedBoard) {
+            return tracker.status();
+        }
+        return verifier.status(board);
     }
 
     public boolean canSolve(Board board) {
@@ -93,14 +235,19 @@ public class GameController {
     }
 
     public Board solve(Board board) throws IOException {
-        if (!canSolve(board)) {
-            throw new IllegalStateException("Solve is only allowed when exactly 5 cells are empty.");
+        long t = Metrics.start();
+        try {
+            if (!canSolve(board)) {
+                throw new IllegalStateException("Solve is only allowed when exactly 5 cells are empty.");
+            }
+
+            Board solved = solver.solveIfExactlyFiveBlanks(givens, board);
+            if (solved == null) return null;
+
+            storage.saveCurrentBoard(solved);
+            return solved;
+        } finally {
+            SOLVE.recordSince(t);
         }
-
-        Board solved = solver.solveIfExactlyFiveBlanks(board);
-        if (solved == null) return null;
-
-        storage.saveCurrentBoard(solved);
-        return solved;
     }
 }
\ No newline at end of file
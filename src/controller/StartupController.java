@@ -8,6 +8,7 @@ import storage.GameStorage;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.SplittableRandom;
 
 public class StartupController {
 
@@ -57,14 +58,17 @@ public class StartupController {
         return catalogue.loadUnfinishedGame();
     }
 
+    // Picks the game; GameController.startTrackingNewOrLoadedGame replaces the unfinished one with it.
     public Board startNewGame(Difficulty difficulty) throws IOException {
-        Board board = catalogue.getGame(difficulty);
-        storage.clearIncompleteFolder();
-        storage.saveCurrentBoard(board);
-        return board;
+        return catalogue.getGame(difficulty);
     }
 
     public void bootstrapFromSolvedSource(Path solvedCsvPath, int gamesPerDifficulty) throws IOException {
         driver.generateDifficultyGamesFromSolved(solvedCsvPath, gamesPerDifficulty);
     }
+
+    // Fills the catalogue from generated solved grids; no upload needed.
+    public void bootstrapGenerated(int gamesPerDifficulty) throws IOException {
+        driver.generateDifficultyGames(gamesPerDifficulty, new SplittableRandom().nextLong());
+    }
 }
@@ -0,0 +1,345 @@
+package driver;
+
+import model.Board;
+import model.VerificationResult;
+import model.VerificationStatus;
+import solver.SudokuSolver;
+import storage.MultiBoardReader;
+import storage.PuzzlePack;
+import verifier.BoardVerifier;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Headless verify/solve over large puzzle dumps: multi-board or single-board
+ * CSVs and puzzle packs, or directories of them.
+ *
+ * Boards are streamed in by the calling thread, worked on by a fixed pool and
+ * written out by one writer thread in input order, one line per board:
+ *
+ *   file#index,STATUS,detail
+ *
+ * where verify prints VALID / INCOMPLETE / INVALID and the number of duplicates,
+ * and solve prints SOLVED and the 81 digits of the solution, or UNSOLVABLE /
+ * INVALID. At most {@code window} boards are in flight: when the writer or the
+ * workers fall behind, reading blocks, so memory stays bounded however large
+ * the input is. Progress and the final throughput go to stderr.
+ *
+ * Usage: java driver.BatchSolver verify|solve [--threads n] [--window n] [--out file] file-or-dir...
+ */
+public class BatchSolver {
+
+    public enum Mode { VERIFY, SOLVE }
+
+    // Result statuses besides the VerificationStatus names.
+    static final String SOLVED = "SOLVED";
+    static final String UNSOLVABLE = "UNSOLVABLE";
+
+    private static final long PROGRESS_NANOS = 5_000_000_000L;
+
+    /** Counts for one run. */
+    public static final class Report {
+        private final Map<String, Long> statuses = new TreeMap<>();
+        private long boards;
+        private long malformed;
+        private long nanos;
+
+        public long getBoards() { return boards; }
+        public long getMalformed() { return malformed; }
+        public long getNanos() { return nanos; }
+
+        public long getCount(String status) {
+            return statuses.getOrDefault(status, 0L);
+        }
+
+        public double getBoardsPerSecond() {
+            return nanos == 0 ? 0.0 : boards / (nanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("boards=%d %s, malformed=%d in %.2fs (%.0f boards/s)",
+                    boards, statuses, malformed, nanos / 1e9, getBoardsPerSecond());
+        }
+    }
+
+    // One board in flight: where it came from, and the task computing "STATUS,detail".
+    private static final class Item {
+        final String source;
+        final FutureTask<String> result;
+
+        Item(String source, FutureTask<String> result) {
+            this.source = source;
+            this.result = result;
+        }
+    }
+
+    private static final Item END = new Item(null, null);
+
+    private final Mode mode;
+    private final int threads;
+    private final int window;
+    private final BoardVerifier verifier = new BoardVerifier();
+    private final SudokuSolver solver = new SudokuSolver(verifier);
+
+    public BatchSolver(Mode mode, int threads, int window) {
+        if (threads < 1) throw new IllegalArgumentException("threads must be >= 1");
+        if (window < 1) throw new IllegalArgumentException("window must be >= 1");
+        this.mode = mode;
+        this.threads = threads;
+        this.window = window;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) usage();
+        Mode mode = null;
+        if (args[0].equals("verify")) mode = Mode.VERIFY;
+        if (args[0].equals("solve")) mode = Mode.SOLVE;
+        if (mode == null) usage();
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        int window = -1;
+        Path out = null;
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads":
+                    if (++i == args.length) usage();
+                    threads = positiveInt(args[i]);
+                    break;
+                case "--window":
+                    if (++i == args.length) usage();
+                    window = positiveInt(args[i]);
+                    break;
+                case "--out":
+                    if (++i == args.length) usage();
+                    out = Paths.get(args[i]);
+                    break;
+                default: inputs.add(Paths.get(args[i]));
+            }
+        }
+        if (inputs.isEmpty()) usage();
+        if (window < 0) window = threads * 256;
+
+        BatchSolver batch = new BatchSolver(mode, threads, window);
+        Report report;
+        if (out == null) {
+            Writer w = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+            report = batch.run(inputs, w);
+            w.flush();
+        } else {
+            try (Writer w = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+                report = batch.run(inputs, w);
+            }
+        }
+        System.err.println(report);
+    }
+
+    private static void usage() {
+        System.err.println("Usage: java driver.BatchSolver verify|solve [--threads n] [--window n] [--out file] "
+                + "file-or-dir...");
+        System.exit(2);
+    }
+
+    // A --threads or --window value; anything but a positive integer prints the usage.
+    private static int positiveInt(String arg) {
+        try {
+            int n = Integer.parseInt(arg);
+            if (n >= 1) return n;
+        } catch (NumberFormatException e) {
+            // falls through to the usage
+        }
+        usage();
+        return -1; // not reached
+    }
+
+    /**
+     * Processes every board under {@code inputs} (directories are walked for
+     * .csv and .pack files) and writes one line per board to {@code out}, in
+     * input order. {@code out} is not closed.
+     */
+    public Report run(List<Path> inputs, Writer out) throws IOException {
+        List<Path> files = expand(inputs);
+        Report report = new Report();
+        long start = System.nanoTime();
+
+        BlockingQueue<Item> inFlight = new ArrayBlockingQueue<>(window);
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "batch-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        Writing writing = new Writing(inFlight, out, report, start);
+        Thread writer = new Thread(writing, "batch-writer");
+        writer.setDaemon(true);
+        writer.start();
+
+        MultiBoardReader reader = new MultiBoardReader();
+        try {
+            for (Path file : files) {
+                String name = file.toString();
+                if (isPack(file)) {
+                    try (PuzzlePack pack = PuzzlePack.open(file)) {
+                        for (int i = 0; i < pack.size() && writing.failure == null; i++) {
+                            submit(pack.get(i), name, i + 1, pool, inFlight);
+                        }
+                    }
+                } else {
+                    long[] index = {0};
+                    reader.read(file, (board, section) -> {
+                        index[0]++;
+                        if (writing.failure == null) {
+                            submit(new Board(board), name, index[0], pool, inFlight); // reader reuses its board
+                        }
+                    });
+                }
+                if (writing.failure != null) break;
+            }
+            inFlight.put(END);
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch was interrupted.", e);
+        } finally {
+            pool.shutdownNow();
+            writer.interrupt();
+        }
+
+        if (writing.failure != null) throw writing.failure;
+        report.malformed = reader.getMalformedCount();
+        report.nanos = System.nanoTime() - start;
+        return report;
+    }
+
+    // Queues one board; blocks while `window` boards are already waiting to be written.
+    private void submit(Board board, String file, long index, ExecutorService pool, BlockingQueue<Item> inFlight)
+            throws IOException {
+        FutureTask<String> task = new FutureTask<>(() -> process(board));
+        try {
+            inFlight.put(new Item(file + "#" + index, task));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch was interrupted.", e);
+        }
+        pool.execute(task);
+    }
+
+    // "STATUS,detail" for one board.
+    String process(Board board) {
+        if (mode == Mode.VERIFY) {
+            VerificationResult res = verifier.verify(board);
+            return res.getStatus() + "," + res.getDuplicates().size();
+        }
+        if (verifier.status(board) == VerificationStatus.INVALID) {
+            return VerificationStatus.INVALID + ",";
+        }
+        Board solved = solver.solve(board);
+        if (solved == null) return UNSOLVABLE + ",";
+        StringBuilder sb = new StringBuilder(SOLVED.length() + 82).append(SOLVED).append(',');
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                sb.append((char) ('0' + solved.get(r, c)));
+            }
+        }
+        return sb.toString();
+    }
+
+    /*
+     * Drains the in-flight queue in submission order, waiting on each result in
+     * turn. After a failure it keeps taking (and dropping) items until END, so
+     * the reader is never left blocked on a full queue.
+     */
+    private static final class Writing implements Runnable {
+        private final BlockingQueue<Item> inFlight;
+        private final Writer out;
+        private final Report report;
+        private final long start;
+        volatile IOException failure;
+
+        Writing(BlockingQueue<Item> inFlight, Writer out, Report report, long start) {
+            this.inFlight = inFlight;
+            this.out = out;
+            this.report = report;
+            this.start = start;
+        }
+
+        @Override
+        public void run() {
+            long nextProgress = start + PROGRESS_NANOS;
+            try {
+                for (Item item = inFlight.take(); item != END; item = inFlight.take()) {
+                    if (failure == null) write(item);
+
+                    long now = System.nanoTime();
+                    if (now >= nextProgress) {
+                        System.err.printf("%d boards, %.0f boards/s%n", report.boards,
+                                report.boards / ((now - start) / 1e9));
+                        nextProgress = now + PROGRESS_NANOS;
+                    }
+                }
+                if (failure == null) out.flush();
+            } catch (IOException e) {
+                failure = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void write(Item item) throws InterruptedException {
+            try {
+                String result = item.result.get();
+                out.write(item.source);
+                out.write(',');
+                out.write(result);
+                out.write('\n');
+                report.statuses.merge(result.substring(0, result.indexOf(',')), 1L, Long::sum);
+                report.boards++;
+            } catch (IOException e) {
+                failure = e;
+            } catch (ExecutionException e) {
+                failure = new IOException("Board " + item.source + " could not be processed: " + e.getCause(),
+                        e.getCause());
+            }
+        }
+    }
+
+    private static List<Path> expand(List<Path> inputs) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path in : inputs) {
+            if (Files.isDirectory(in)) {
+                try (Stream<Path> walk = Files.walk(in)) {
+                    files.addAll(walk.filter(Files::isRegularFile)
+                            .filter(p -> isPack(p) || p.getFileName().toString().toLowerCase().endsWith(".csv"))
+                            .sorted()
+                            .collect(Collectors.toList()));
+                }
+            } else {
+                files.add(in);
+            }
+        }
+        return files;
+    }
+
+    private static boolean isPack(Path file) {
+        return file.getFileName().toString().toLowerCase().endsWith(".pack");
+    }
+}
@@ -1,27 +1,195 @@
 package driver;
 
+import metrics.GenerationEvent;
 import model.Board;
 import model.Difficulty;
 import model.VerificationResult;
 import model.VerificationStatus;
+import solver.BitmaskSolver;
+import solver.GradeResult;
+import solver.TechniqueGrader;
 import storage.GameStorage;
 import util.RandomPairs;
 import verifier.BoardVerifier;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
 
 public class GameDriver {
     private final GameStorage storage;
     private final BoardVerifier verifier;
+    private final BitmaskSolver uniqueness = new BitmaskSolver();
+    private final TechniqueGrader grader = new TechniqueGrader();
+
+    // Fresh digging orders tried before settling for the closest puzzle found.
+    private static final int MAX_DIG_ATTEMPTS = 20;
+
+    // GenerationEvent sources
+    private static final String SOURCE_SOLVED_FILE = "solvedFile";
+    private static final String SOURCE_GENERATED = "generatedGrids";
 
     public GameDriver(GameStorage storage, BoardVerifier verifier) {
         this.storage = storage;
         this.verifier = verifier;
     }
 
-    public void generateDifficultyGamesFromSolved(Path solvedCsvPath, int gamesPerDifficulty) throws IOException {
+    /**
+     * Digs games out of the solved board at {@code solvedCsvPath} with a fresh
+     * random seed; see {@link #generateDifficultyGamesInParallel}.
+     */
+    public int generateDifficultyGamesFromSolved(Path solvedCsvPath, int gamesPerDifficulty) throws IOException {
+        return generateDifficultyGamesInParallel(solvedCsvPath, gamesPerDifficulty, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Digs {@code gamesPerDifficulty} games of every level out of one solved
+     * board, on a work-stealing pool with one task per (game, difficulty). Each
+     * task gets its own SplittableRandom derived from {@code seed}, and repeated
+     * puzzles are weeded out in task order after the pool is done, so a run is
+     * reproducible no matter how the tasks are scheduled.
+     * Returns the number of games written: a game whose every digging attempt
+     * repeated an earlier puzzle is skipped rather than saved twice.
+     */
+    public int generateDifficultyGamesInParallel(Path solvedCsvPath, int gamesPerDifficulty, long seed)
+            throws IOException {
+        GenerationEvent event = new GenerationEvent();
+        if (event.isEnabled()) event.begin();
+        int saved = 0;
+        try {
+            Board solved = loadSolvedSource(solvedCsvPath);
+            saved = generate(gamesPerDifficulty, seed, solved);
+            return saved;
+        } finally {
+            commit(event, SOURCE_SOLVED_FILE, gamesPerDifficulty, saved, parallelism(), seed);
+        }
+    }
+
+    /**
+     * Bootstraps the catalogue without a solved source: every (game, difficulty)
+     * task digs its puzzle out of its own freshly generated solved grid, so the
+     * games are not all variations of one solution. Each run of
+     * {@link SolvedGridGenerator#GRIDS_PER_FILL} consecutive tasks draws its grids
+     * from one generator, so a backtracking fill serves that many grids.
+     * Reproducible per {@code seed}.
+     * Returns the number of games written, as above.
+     */
+    public int generateDifficultyGames(int gamesPerDifficulty, long seed) throws IOException {
+        GenerationEvent event = new GenerationEvent();
+        if (event.isEnabled()) event.begin();
+        int saved = 0;
+        try {
+            storage.ensureFolderStructure();
+            saved = generate(gamesPerDifficulty, seed, null);
+            return saved;
+        } finally {
+            commit(event, SOURCE_GENERATED, gamesPerDifficulty, saved, parallelism(), seed);
+        }
+    }
+
+    // Records the batch as a JFR event; games and skipped count every difficulty.
+    private static void commit(GenerationEvent event, String source, int gamesPerDifficulty, int saved,
+                               int threads, long seed) {
+        event.end();
+        if (!event.shouldCommit()) return;
+        event.source = source;
+        event.games = saved;
+        event.skipped = gamesPerDifficulty * Difficulty.values().length - saved;
+        event.threads = threads;
+        event.seed = seed;
+        event.commit();
+    }
+
+    private static int parallelism() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /*
+     * Task t makes game t / levels + 1 of level t % levels, digging from
+     * {@code source}, or from a generated grid when it is null. Every task digs
+     * its puzzle on the pool with its own stream (seeds are drawn up front, so
+     * scheduling cannot change them); then, on this thread and in task order,
+     * a repeat of an earlier puzzle is dug again from the same stream, and the
+     * game is saved or skipped. Returns how many were saved.
+     */
+    private int generate(int gamesPerDifficulty, long seed, Board source) throws IOException {
+        Difficulty[] levels = Difficulty.values();
+        int tasks = gamesPerDifficulty * levels.length;
+        SplittableRandom[] rngs = new SplittableRandom[tasks];
+        SplittableRandom root = new SplittableRandom(seed);
+        for (int t = 0; t < tasks; t++) {
+            rngs[t] = new SplittableRandom(root.nextLong());
+        }
+
+        Board[] solved = new Board[tasks];
+        if (source != null) {
+            Arrays.fill(solved, source);
+        } else {
+            generateSolvedGrids(solved, rngs);
+        }
+
+        Board[] puzzles = new Board[tasks];
+        runInParallel(tasks, t -> puzzles[t] = digForDifficulty(solved[t], levels[t % levels.length], rngs[t]));
+
+        Set<Board> generated = new HashSet<>();
+        int saved = 0;
+        for (int t = 0; t < tasks; t++) {
+            if (saveUnique(solved[t], puzzles[t], levels[t % levels.length], t / levels.length + 1, rngs[t],
+                    generated)) {
+                saved++;
+            }
+        }
+        return saved;
+    }
+
+    /*
+     * Fills grids[t] for every task on the pool. Each chunk of GRIDS_PER_FILL
+     * consecutive tasks shares one generator, seeded from a split of the
+     * chunk's first task stream, so the grids do not depend on scheduling.
+     */
+    private void generateSolvedGrids(Board[] grids, SplittableRandom[] rngs) throws IOException {
+        int perFill = SolvedGridGenerator.GRIDS_PER_FILL;
+        int chunks = (grids.length + perFill - 1) / perFill;
+        SplittableRandom[] chunkRngs = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) {
+            chunkRngs[c] = rngs[c * perFill].split();
+        }
+        runInParallel(chunks, c -> {
+            SolvedGridGenerator generator = new SolvedGridGenerator(chunkRngs[c]);
+            int end = Math.min(grids.length, (c + 1) * perFill);
+            for (int t = c * perFill; t < end; t++) {
+                grids[t] = generator.next();
+            }
+        });
+    }
+
+    // Runs tasks 0..tasks-1 on a work-stealing pool and waits for all of them.
+    private void runInParallel(int tasks, IntConsumer task) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism());
+        try {
+            pool.submit(() -> IntStream.range(0, tasks).parallel().forEach(task)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Game generation was interrupted.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException("Game generation failed: " + cause, cause);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Board loadSolvedSource(Path solvedCsvPath) throws IOException {
         storage.ensureFolderStructure();
 
         Board solved = storage.loadBoard(solvedCsvPath);
@@ -32,34 +200,82 @@ public class GameDriver {
                     "Provided source board must be a complete VALID solved Sudoku. Found: " + res.getStatus()
             );
         }
+        return solved;
+    }
 
-        for (int i = 1; i <= gamesPerDifficulty; i++) {
-            // Generate puzzles for each difficulty
-            Board easy = removeCellsFromSolved(solved, 10);   // Easy: 10 holes
-            Board medium = removeCellsFromSolved(solved, 20); // Medium: 20 holes
-            Board hard = removeCellsFromSolved(solved, 25);   // Hard: 25 holes
+    /**
+     * Writes the task's dug puzzle unless it was already produced in this run;
+     * a repeat is dug again from the task's stream. Duplicates are found through
+     * Board's Zobrist hash and equals. Returns false, writing nothing, if all
+     * {@link #MAX_DIG_ATTEMPTS} puzzles were duplicates.
+     */
+    private boolean saveUnique(Board solved, Board puzzle, Difficulty difficulty, int index, RandomGenerator rng,
+                               Set<Board> generated) throws IOException {
+        for (int attempt = 1; !generated.add(puzzle); attempt++) {
+            if (attempt == MAX_DIG_ATTEMPTS) return false;
+            puzzle = digForDifficulty(solved, difficulty, rng);
+        }
+        storage.saveGame(puzzle, difficulty, "game_" + pad3(index) + ".csv");
+        return true;
+    }
 
-            storage.saveGame(easy, Difficulty.EASY, "game_" + pad3(i) + ".csv");
-            storage.saveGame(medium, Difficulty.MEDIUM, "game_" + pad3(i) + ".csv");
-            storage.saveGame(hard, Difficulty.HARD, "game_" + pad3(i) + ".csv");
+    // Upper bound on holes per level, so easy games do not become tediously empty.
+    private int maxHolesFor(Difficulty difficulty) {
+        switch (difficulty) {
+            case EASY: return 40;
+            case MEDIUM: return 50;
+            default: return 64;
         }
     }
 
-    private Board removeCellsFromSolved(Board solved, int holes) {
-        Board puzzle = new Board(solved);
+    /**
+     * Digs holes until the technique grader rates the puzzle at the target difficulty.
+     * A hole that keeps the solution unique but makes the puzzle harder than the target
+     * is filled again, and digging continues up to the level's hole limit, so the
+     * result is the emptiest puzzle found that still grades at the target.
+     * If no digging order reaches the target, the puzzle that came closest is used.
+     */
+    private Board digForDifficulty(Board solved, Difficulty target, RandomGenerator rng) {
+        Board closest = null;
+        int closestGap = Integer.MAX_VALUE;
 
-        long seed = System.currentTimeMillis() ^ (long)holes * 31;
-        RandomPairs pairs = new RandomPairs(seed);
+        for (int attempt = 0; attempt < MAX_DIG_ATTEMPTS; attempt++) {
+            Board puzzle = new Board(solved);
+            Board match = null;
+            int holes = 0;
+            Difficulty grade = Difficulty.EASY;
 
-        List<int[]> positionsToRemove = pairs.generateDistinctPairs(holes);
-        
-        for (int[] pos : positionsToRemove) {
-            int r = pos[0];
-            int c = pos[1];
-            puzzle.set(r, c, 0);
-        }
+            // every cell in random order, so rejected cells can be replaced by later ones
+            for (int[] pos : new RandomPairs(rng).generateDistinctPairs(81)) {
+                if (holes == maxHolesFor(target)) break;
+                int r = pos[0];
+                int c = pos[1];
+                int val = puzzle.get(r, c);
+
+                puzzle.set(r, c, 0);
+                if (uniqueness.countSolutions(puzzle, 2) != 1) {
+                    puzzle.set(r, c, val); // ambiguous without this clue; keep it
+                    continue;
+                }
+                GradeResult result = grader.grade(puzzle);
+                if (result.difficulty().compareTo(target) > 0) {
+                    puzzle.set(r, c, val); // too hard for this level; keep it
+                    continue;
+                }
+                holes++;
+                grade = result.difficulty();
+                if (grade == target) match = new Board(puzzle);
+            }
 
-        return puzzle;
+            if (match != null) return match;
+
+            int gap = target.ordinal() - grade.ordinal();
+            if (gap < closestGap) {
+                closestGap = gap;
+                closest = new Board(puzzle);
+            }
+        }
+        return closest;
     }
 
     private String pad3(int x) {
@@ -67,4 +283,4 @@ public class GameDriver {
         if (x < 100) return "0" + x;
         return String.valueOf(x);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,148 @@
+package driver;
+
+import model.Board;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Produces random complete, valid grids, so the catalogue can be bootstrapped
+ * without a solved CSV. A base grid is filled by randomized backtracking over
+ * row/column/box bitmasks, and each grid handed out is that base under a random
+ * validity-preserving transform (digit relabelling, row and column swaps within
+ * bands and stacks, band and stack swaps, transposition). A new base is filled
+ * every {@link #GRIDS_PER_FILL} grids so the output is not one family only.
+ * Not thread-safe; give each thread its own generator.
+ */
+public class SolvedGridGenerator {
+
+    public static final int GRIDS_PER_FILL = 16;
+    private static final int ALL = 0x1FF;
+
+    private final RandomGenerator rng;
+    private Board base;
+    private int fromBase;
+
+    public SolvedGridGenerator(RandomGenerator rng) {
+        this.rng = rng;
+    }
+
+    public Board next() {
+        if (base == null || fromBase == GRIDS_PER_FILL) {
+            base = fill(rng);
+            fromBase = 0;
+        }
+        fromBase++;
+        return transform(base, rng);
+    }
+
+    /** Fills an empty grid by backtracking, trying candidates in random order. */
+    public static Board fill(RandomGenerator rng) {
+        int[] cells = new int[81];
+        int[] rows = new int[9];
+        int[] cols = new int[9];
+        int[] boxes = new int[9];
+        if (!fill(cells, rows, cols, boxes, 0, rng)) {
+            throw new IllegalStateException("Empty grid could not be filled.");
+        }
+        Board out = new Board();
+        for (int i = 0; i < 81; i++) {
+            out.set(i / 9, i % 9, cells[i]);
+        }
+        return out;
+    }
+
+    private static boolean fill(int[] cells, int[] rows, int[] cols, int[] boxes, int filled,
+                                RandomGenerator rng) {
+        if (filled == 81) return true;
+
+        // branch on the empty cell with the fewest candidates
+        int cell = -1;
+        int cand = 0;
+        int fewest = 10;
+        for (int i = 0; i < 81 && fewest > 1; i++) {
+            if (cells[i] != 0) continue;
+            int m = ~(rows[i / 9] | cols[i % 9] | boxes[box(i)]) & ALL;
+            int n = Integer.bitCount(m);
+            if (n < fewest) {
+                fewest = n;
+                cand = m;
+                cell = i;
+            }
+        }
+        if (fewest == 0) return false;
+
+        int[] order = new int[fewest];
+        for (int k = 0; k < fewest; k++) {
+            order[k] = cand & -cand;
+            cand ^= order[k];
+        }
+        shuffle(order, rng);
+
+        int r = cell / 9;
+        int c = cell % 9;
+        int b = box(cell);
+        for (int bit : order) {
+            cells[cell] = Integer.numberOfTrailingZeros(bit) + 1;
+            rows[r] |= bit;
+            cols[c] |= bit;
+            boxes[b] |= bit;
+            if (fill(cells, rows, cols, boxes, filled + 1, rng)) return true;
+            rows[r] ^= bit;
+            cols[c] ^= bit;
+            boxes[b] ^= bit;
+        }
+        cells[cell] = 0;
+        return false;
+    }
+
+    /** Returns a copy of {@code board} under a random symmetry of the Sudoku rules. */
+    public static Board transform(Board board, RandomGenerator rng) {
+        int[] digits = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        for (int i = 9; i > 1; i--) {
+            int j = 1 + rng.nextInt(i);
+            int t = digits[i];
+            digits[i] = digits[j];
+            digits[j] = t;
+        }
+        int[] rowOrder = lineOrder(rng);
+        int[] colOrder = lineOrder(rng);
+        boolean transpose = rng.nextBoolean();
+
+        Board out = new Board();
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                int v = transpose ? board.get(colOrder[c], rowOrder[r]) : board.get(rowOrder[r], colOrder[c]);
+                out.set(r, c, digits[v]);
+            }
+        }
+        return out;
+    }
+
+    // A random order of the 9 lines that keeps each band (or stack) together.
+    private static int[] lineOrder(RandomGenerator rng) {
+        int[] bands = {0, 1, 2};
+        shuffle(bands, rng);
+        int[] order = new int[9];
+        for (int b = 0; b < 3; b++) {
+            int[] within = {0, 1, 2};
+            shuffle(within, rng);
+            for (int k = 0; k < 3; k++) {
+                order[b * 3 + k] = bands[b] * 3 + within[k];
+            }
+        }
+        return order;
+    }
+
+    private static void shuffle(int[] a, RandomGenerator rng) {
+        for (int i = a.length - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            int t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+    }
+
+    private static int box(int i) {
+        return (i / 27) * 3 + (i % 9) / 3;
+    }
+}
@@ -501,47 +501,29 @@ public class GameFrame {
     }
     
     /**
-     * Checks if board is complete and valid
+     * Checks if board is complete and valid.
+     * The controller keeps incremental unit counts for the active board,
+     * so this is a constant-time lookup and runs directly on the EDT.
      */
     private void checkBoardCompletion() {
         if (gameCompleted) return;
         
-        setLoading(true);
-        
-        SwingWorker<Void, Void> worker = new SwingWorker<>() {
-            @Override
-            protected Void doInBackground() {
-                try {
-                    // Verify the board
-                    VerificationResult result = gameController.verify(currentBoard);
-                    
-                    // Update UI on EDT
-                    SwingUtilities.invokeLater(() -> {
-                        setLoading(false);
-                        
-                        if (result.getStatus() == VerificationStatus.VALID) {
-                            // Board is complete and valid
-                            handleLevelCompleted();
-                        } else {
-                            // Board is complete but invalid
-                            setStatus("✗ Board complete but has errors");
-                            showError("Invalid Solution", 
-                                "The completed board contains errors. Please check your solution.");
-                        }
-                    });
-                    
-                } catch (Exception e) {
-                    SwingUtilities.invokeLater(() -> {
-                        setLoading(false);
-                        showError("Verification Error", 
-                            "Failed to verify board: " + e.getMessage());
-                    });
-                }
-                return null;
+        try {
+            VerificationStatus status = gameController.verificationStatus(currentBoard);
+            
+            if (status == VerificationStatus.VALID) {
+                // Board is complete and valid
+                handleLevelCompleted();
+            } else {
+                // Board is complete but invalid
+                setStatus("✗ Board complete but has errors");
+                showError("Invalid Solution", 
+                    "The completed board contains errors. Please check your solution.");
             }
-        };
-        
-        worker.execute();
+        } catch (Exception e) {
+            showError("Verification Error", 
+                "Failed to verify board: " + e.getMessage());
+        }
     }
     
     /**
@@ -592,6 +574,8 @@ public class GameFrame {
      * Returns to main menu to choose a new game
      */
     private void returnToMainMenuForNewGame() {
+        flushPendingSaves();
+        
         // Notify listener that game is completed and we want a new game
         if (completionListener != null) {
             completionListener.onGameCompleted(true, currentDifficulty);
@@ -615,6 +599,8 @@ public class GameFrame {
      * Returns to main menu
      */
     private void returnToMainMenu() {
+        flushPendingSaves();
+        
         // Notify listener
         if (completionListener != null) {
             completionListener.onReturnToMenu();
@@ -634,6 +620,17 @@ public class GameFrame {
         });
     }
     
+    /**
+     * Makes sure the last board state is on disk before leaving the game
+     */
+    private void flushPendingSaves() {
+        try {
+            gameController.flushPendingSaves();
+        } catch (IOException e) {
+            showError("Save Error", "Failed to save the current board: " + e.getMessage());
+        }
+    }
+    
     /**
      * Handles Verify button click
      */
@@ -24,6 +24,9 @@ public class StartupFrame implements GameCompletionListener {
     private static final Color TEXT_COLOR = new Color(44, 62, 80);
     private static final Color BORDER_COLOR = new Color(220, 220, 220);
     
+    // Games per difficulty made by the Generate button
+    private static final int GENERATED_GAMES_PER_LEVEL = 20;
+    
     // Main frame and panels
     private final JFrame frame;
     private JPanel mainPanel;
@@ -39,6 +42,7 @@ public class StartupFrame implements GameCompletionListener {
     private JButton mediumButton;
     private JButton hardButton;
     private JButton uploadButton;
+    private JButton generateButton;
     private JButton exitButton;
     
     // Controllers and facades
@@ -143,6 +147,7 @@ public class StartupFrame implements GameCompletionListener {
         mediumButton = createStyledButton("Medium", new Color(230, 126, 34)); // Orange
         hardButton = createStyledButton("Hard", new Color(231, 76, 60));      // Red
         uploadButton = createStyledButton("📁 Upload Solved Puzzle", SECONDARY_COLOR);
+        generateButton = createStyledButton("🎲 Generate Games", SECONDARY_COLOR);
         exitButton = createStyledButton("Exit", new Color(149, 165, 166));    // Gray
         
         // Add action listeners
@@ -154,6 +159,7 @@ public class StartupFrame implements GameCompletionListener {
         buttonPanel.add(mediumButton);
         buttonPanel.add(hardButton);
         buttonPanel.add(uploadButton);
+        buttonPanel.add(generateButton);
         buttonPanel.add(exitButton);
         
         mainPanel.add(buttonPanel, BorderLayout.CENTER);
@@ -199,6 +205,7 @@ public class StartupFrame implements GameCompletionListener {
         mediumButton.addActionListener(e -> handleStartGame(Difficulty.MEDIUM));
         hardButton.addActionListener(e -> handleStartGame(Difficulty.HARD));
         uploadButton.addActionListener(e -> handleUploadPuzzle());
+        generateButton.addActionListener(e -> handleGenerateGames());
         exitButton.addActionListener(e -> handleExit());
     }
     
@@ -239,6 +246,16 @@ public class StartupFrame implements GameCompletionListener {
         frame.setVisible(true);
     }
     
+    /**
+     * Shows the frame right away with its buttons disabled and checks the game
+     * library in the background. {@code onReady} (may be null) runs on the EDT
+     * once the buttons match the catalogue and can be used.
+     */
+    public void showAndLoadCatalog(Runnable onReady) {
+        show();
+        refreshCatalog(onReady);
+    }
+    
     /** Hides the startup frame */
     public void hide() {
         frame.setVisible(false);
@@ -288,11 +305,13 @@ public class StartupFrame implements GameCompletionListener {
             mediumButton.setVisible(true);
             hardButton.setVisible(true);
             uploadButton.setVisible(false);
+            generateButton.setVisible(false);
         } else {
             easyButton.setVisible(false);
             mediumButton.setVisible(false);
             hardButton.setVisible(false);
             uploadButton.setVisible(true);
+            generateButton.setVisible(true);
         }
         
         // Update subtitle based on state
@@ -303,7 +322,7 @@ public class StartupFrame implements GameCompletionListener {
             subtitleLabel.setText("Select a difficulty level to begin");
             subtitleLabel.setForeground(TEXT_COLOR);
         } else {
-            subtitleLabel.setText("Please upload a solved Sudoku puzzle");
+            subtitleLabel.setText("Please upload a solved Sudoku puzzle or generate games");
             subtitleLabel.setForeground(SECONDARY_COLOR);
         }
     }
@@ -317,7 +336,7 @@ public class StartupFrame implements GameCompletionListener {
             statusLabel.setText("✓ Game library ready - Easy, Medium, Hard puzzles available");
             statusLabel.setForeground(new Color(39, 174, 96));
         } else {
-            statusLabel.setText("⚠ No games found - Please upload a solved puzzle");
+            statusLabel.setText("⚠ No games found - Please upload a solved puzzle or generate games");
             statusLabel.setForeground(new Color(230, 126, 34));
         }
     }
@@ -356,6 +375,9 @@ public class StartupFrame implements GameCompletionListener {
                     // Load unfinished game
                     Board unfinishedBoard = startupController.resumeUnfinished();
                     
+                    // Re-apply any logged moves the saved board missed
+                    gameController.resumeTrackingExistingGame(unfinishedBoard);
+                    
                     // Switch to game frame on EDT
                     SwingUtilities.invokeLater(() -> {
                         hide();
@@ -397,6 +419,9 @@ public class StartupFrame implements GameCompletionListener {
                     // Start new game
                     Board newBoard = startupController.startNewGame(difficulty);
                     
+                    // Replace the unfinished game's files and start a fresh move log
+                    gameController.startTrackingNewOrLoadedGame(newBoard);
+                    
                     // Switch to game frame on EDT
                     SwingUtilities.invokeLater(() -> {
                         hide();
@@ -505,6 +530,39 @@ gameFrame.show();
         }
     }
     
+    /** Handles Generate Games button click */
+    private void handleGenerateGames() {
+        setLoading(true);
+        statusLabel.setText("Generating games...");
+        
+        SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
+            private Exception error;
+            
+            @Override
+            protected Void doInBackground() {
+                try {
+                    startupController.bootstrapGenerated(GENERATED_GAMES_PER_LEVEL);
+                } catch (Exception e) {
+                    error = e;
+                }
+                return null;
+            }
+            
+            @Override
+            protected void done() {
+                setLoading(false);
+                if (error != null) {
+                    showError("Generation Error", "Failed to generate games: " + error.getMessage());
+                    return;
+                }
+                showMessage("Success", "Games generated successfully! You can now choose a difficulty.");
+                updateCatalogStatus(false, true);
+            }
+        };
+        
+        worker.execute();
+    }
+    
     /** Handles Exit button click */
     private void handleExit() {
         int confirm = JOptionPane.showConfirmDialog(
@@ -557,6 +615,10 @@ public void onReturnToMenu() {
  * Refreshes the catalog from the controller
  */
 private void refreshCatalog() {
+    refreshCatalog(null);
+}
+
+private void refreshCatalog(Runnable onReady) {
     setLoading(true);
     
     SwingWorker<Void, Void> worker = new SwingWorker<>() {
@@ -579,6 +641,9 @@ private void refreshCatalog() {
             if (catalogInfo != null) {
                 updateCatalogStatus(catalogInfo[0], catalogInfo[1]);
             }
+            if (onReady != null) {
+                onReady.run();
+            }
         }
     };
     
@@ -0,0 +1,194 @@
+package logging;
+
+import metrics.PersistEvent;
+import storage.Durability;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary move journal backed by a {@link MappedByteBuffer}.
+ * Layout: 4-byte magic, 4-byte record count, then one {@link MoveRecord#pack()}
+ * short per move. Append and undo only touch the tail slot and the count, and
+ * replay is a straight read of the mapped shorts.
+ * Unless the durability is NONE, every change is forced to disk before the
+ * call returns, like a board write at that level.
+ * The file is mapped on first use and the mapping is trusted afterwards, so
+ * moves do not stat the file; as with {@link MoveLog}, code that deletes or
+ * replaces the log must call {@link #reopen()} before the next move.
+ * {@link #close()} closes the channel and drops this log's reference to the
+ * buffer, but the JDK only unmaps it when the buffer is garbage collected; on
+ * Windows the file cannot be deleted until then.
+ */
+public class MappedMoveLog implements MoveJournal, AutoCloseable {
+
+    static final int MAGIC = 0x534D4C31; // "SML1"
+    static final int HEADER_BYTES = 8;
+    private static final int INITIAL_RECORDS = 4096;
+
+    private final Path logPath;
+    private final Durability durability;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int count;
+
+    public MappedMoveLog(Path logPath) {
+        this(logPath, Durability.fromConfiguration());
+    }
+
+    public MappedMoveLog(Path logPath, Durability durability) {
+        this.logPath = logPath;
+        this.durability = durability;
+    }
+
+    @Override
+    public Path getLogPath() {
+        return logPath;
+    }
+
+    @Override
+    public void ensureExists() throws IOException {
+        if (!Files.exists(logPath)) {
+            close(); // the old mapping (if any) points at a deleted file
+            Files.createDirectories(logPath.getParent());
+        }
+        if (buffer == null) open();
+    }
+
+    // Drops the mapping; the next call maps the file again (creating it if it is gone).
+    @Override
+    public void reopen() throws IOException {
+        close();
+    }
+
+    @Override
+    public void clear() throws IOException {
+        ensureMapped();
+        setCount(0);
+        forceTo(HEADER_BYTES);
+    }
+
+    @Override
+    public void append(MoveRecord rec) throws IOException {
+        ensureMapped();
+        PersistEvent event = new PersistEvent();
+        if (event.isEnabled()) event.begin();
+        int pos = HEADER_BYTES + count * 2;
+        if (pos + 2 > buffer.capacity()) remap(buffer.capacity() * 2L);
+        buffer.putShort(pos, rec.pack());
+        setCount(count + 1);
+        forceTo(pos + 2);
+        commit(event, PersistEvent.APPEND_MOVE, 2);
+    }
+
+    @Override
+    public MoveRecord popLast() throws IOException {
+        ensureMapped();
+        if (count == 0) {
+            throw new IllegalStateException("No moves to undo.");
+        }
+        MoveRecord last = MoveRecord.unpack(buffer.getShort(HEADER_BYTES + (count - 1) * 2));
+        setCount(count - 1);
+        forceTo(HEADER_BYTES);
+        return last;
+    }
+
+    @Override
+    public boolean isEmpty() throws IOException {
+        return size() == 0;
+    }
+
+    @Override
+    public int size() throws IOException {
+        ensureMapped();
+        return count;
+    }
+
+    @Override
+    public List<MoveRecord> readAll() throws IOException {
+        ensureMapped();
+        List<MoveRecord> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(MoveRecord.unpack(buffer.getShort(HEADER_BYTES + i * 2)));
+        }
+        return records;
+    }
+
+    // Forces the whole mapping to disk, whatever the durability.
+    public void force() {
+        if (buffer == null) return;
+        PersistEvent event = new PersistEvent();
+        if (event.isEnabled()) event.begin();
+        buffer.force();
+        commit(event, PersistEvent.FORCE_LOG, HEADER_BYTES + count * 2L);
+    }
+
+    /** Closes the channel; the mapping stays until the buffer is garbage collected. */
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        count = 0;
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    // Maps the file the first time it is needed (or after reopen()).
+    private void ensureMapped() throws IOException {
+        if (buffer == null) ensureExists();
+    }
+
+    private void open() throws IOException {
+        // an older text log is converted once, the first time we see it
+        if (Files.exists(logPath) && Files.size(logPath) > 0 && !MoveLogConverter.isBinary(logPath)) {
+            MoveLogConverter.textToBinary(logPath, logPath);
+        }
+
+        channel = FileChannel.open(logPath, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        boolean fresh = size < HEADER_BYTES;
+        remap(Math.max(size, HEADER_BYTES + INITIAL_RECORDS * 2L));
+
+        if (fresh) {
+            buffer.putInt(0, MAGIC);
+            setCount(0);
+        } else {
+            count = buffer.getInt(4);
+        }
+    }
+
+    private void remap(long capacity) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        buffer.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    // Records one JFR persist event. At durability NONE appends only reach the page cache.
+    private void commit(PersistEvent event, String operation, long bytes) {
+        event.end();
+        if (!event.shouldCommit()) return;
+        event.operation = operation;
+        event.path = logPath.toString();
+        event.bytes = bytes;
+        event.commit();
+    }
+
+    // Writes the dirty pages of bytes [0, end) (header and changed record) unless durability is NONE.
+    private void forceTo(int end) {
+        if (durability != Durability.NONE) buffer.force(0, end);
+    }
+
+    private void setCount(int n) {
+        count = n;
+        buffer.putInt(4, n);
+    }
+}
@@ -0,0 +1,66 @@
+package logging;
+
+import storage.Durability;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Append-only journal of moves with undo from the tail.
+ * {@link MoveLog} stores one text line per move; {@link MappedMoveLog}
+ * stores one packed 16-bit record per move in a memory-mapped file.
+ */
+public interface MoveJournal {
+
+    // System property that selects the on-disk format: "text" (default) or "binary".
+    String FORMAT_PROPERTY = "sudoku.movelog";
+
+    Path getLogPath();
+
+    void ensureExists() throws IOException;
+
+    /**
+     * Forgets what this journal knows about the file (its index or mapping),
+     * so the next call looks at the file afresh. Needed after the log was
+     * deleted or replaced by someone else, since the journals trust their
+     * in-memory state instead of checking the file on every move.
+     */
+    void reopen() throws IOException;
+
+    void clear() throws IOException;
+
+    void append(MoveRecord rec) throws IOException;
+
+    MoveRecord popLast() throws IOException;
+
+    boolean isEmpty() throws IOException;
+
+    int size() throws IOException;
+
+    // All records, oldest first.
+    List<MoveRecord> readAll() throws IOException;
+
+    /**
+     * Opens the journal at {@code path} in the configured format. A log left
+     * behind in the other format is converted in place, so switching the
+     * setting never loses an unfinished game's history.
+     */
+    static MoveJournal forPath(Path path) throws IOException {
+        return forPath(path, Durability.fromConfiguration());
+    }
+
+    // As above; either journal forces each change to disk unless durability is NONE.
+    static MoveJournal forPath(Path path, Durability durability) throws IOException {
+        String format = System.getProperty(FORMAT_PROPERTY, "text").trim().toLowerCase();
+        switch (format) {
+            case "text":
+                if (MoveLogConverter.isBinary(path)) MoveLogConverter.binaryToText(path, path);
+                return new MoveLog(path, durability);
+            case "binary":
+                return new MappedMoveLog(path, durability); // converts a text log when it first opens the file
+            default:
+                throw new IllegalArgumentException("Unknown move log format: " + format + ". Use text or binary.");
+        }
+    }
+}
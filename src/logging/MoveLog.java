@@ -1,46 +1,104 @@
 package logging;
 
+import metrics.PersistEvent;
+import storage.Durability;
+
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
-public class MoveLog {
+/**
+ * Append-only text log of moves, one "(r,c,new,prev)" line per move.
+ * The byte offset where each record starts is kept in memory, so undo
+ * truncates the file at the last record instead of rewriting it.
+ * The index is built from the file on first use and trusted afterwards, so
+ * appends and undos do not stat the file. Code that deletes or replaces the
+ * log (clearing the incomplete folder) must call {@link #reopen()} before the
+ * next move.
+ * Unless the durability is NONE, every append and undo is forced to disk
+ * before the call returns (contents at DATA, contents and metadata at FULL),
+ * so the log is at least as durable as a board written at the same level.
+ */
+public class MoveLog implements MoveJournal {
     private final Path logPath;
+    private final Durability durability;
+
+    private long[] offsets = new long[64]; // start of each record line
+    private int count;
+    private long end = -1;                 // file length the index describes; -1 = not indexed
 
     public MoveLog(Path logPath) {
+        this(logPath, Durability.fromConfiguration());
+    }
+
+    public MoveLog(Path logPath, Durability durability) {
         this.logPath = logPath;
+        this.durability = durability;
     }
 
+    @Override
     public Path getLogPath() {
         return logPath;
     }
 
+    @Override
     public void ensureExists() throws IOException {
         Files.createDirectories(logPath.getParent());
         if (!Files.exists(logPath)) {
             Files.writeString(logPath, "", StandardCharsets.UTF_8,
                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            count = 0;
+            end = 0;
         }
     }
 
+    @Override
+    public void reopen() {
+        count = 0;
+        end = -1; // rebuilt from whatever file is there on the next call
+    }
+
+    @Override
     public void clear() throws IOException {
         ensureExists();
-        Files.writeString(logPath, "", StandardCharsets.UTF_8,
-                StandardOpenOption.TRUNCATE_EXISTING);
+        try (FileChannel ch = FileChannel.open(logPath, StandardOpenOption.WRITE)) {
+            ch.truncate(0);
+            force(ch);
+        }
+        count = 0;
+        end = 0;
     }
 
+    @Override
     public void append(MoveRecord rec) throws IOException {
-        ensureExists();
-        String line = rec.toLogLine() + "\n";
-        Files.writeString(logPath, line, StandardCharsets.UTF_8,
-                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        ensureIndexed();
+        byte[] line = (rec.toLogLine() + "\n").getBytes(StandardCharsets.UTF_8);
+        PersistEvent event = new PersistEvent();
+        if (event.isEnabled()) event.begin();
+        try (FileChannel ch = FileChannel.open(logPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buf = ByteBuffer.wrap(line);
+            while (buf.hasRemaining()) ch.write(buf);
+            force(ch);
+        }
+        commit(event, PersistEvent.APPEND_MOVE, line.length);
+
+        if (count == offsets.length) offsets = Arrays.copyOf(offsets, count * 2);
+        offsets[count++] = end;
+        end += line.length;
     }
 
     public List<String> readAllLines() throws IOException {
         ensureExists();
+        PersistEvent event = new PersistEvent();
+        if (event.isEnabled()) event.begin();
         List<String> lines = Files.readAllLines(logPath, StandardCharsets.UTF_8);
+        commit(event, PersistEvent.READ_LOG, Math.max(end, 0));
         List<String> cleaned = new ArrayList<>();
         for (String ln : lines) {
             if (ln != null && !ln.trim().isEmpty()) cleaned.add(ln.trim());
@@ -48,24 +106,94 @@ public class MoveLog {
         return cleaned;
     }
 
+    @Override
+    public List<MoveRecord> readAll() throws IOException {
+        List<MoveRecord> records = new ArrayList<>();
+        for (String ln : readAllLines()) records.add(MoveRecord.parse(ln));
+        return records;
+    }
+
+    @Override
     public boolean isEmpty() throws IOException {
-        return readAllLines().isEmpty();
+        ensureIndexed();
+        return count == 0;
+    }
+
+    @Override
+    public int size() throws IOException {
+        ensureIndexed();
+        return count;
     }
 
+    @Override
     public MoveRecord popLast() throws IOException {
-        List<String> lines = readAllLines();
-        if (lines.isEmpty()) {
+        ensureIndexed();
+        if (count == 0) {
             throw new IllegalStateException("No moves to undo.");
         }
 
-        String last = lines.remove(lines.size() - 1);
+        long start = offsets[count - 1];
+        PersistEvent event = new PersistEvent();
+        if (event.isEnabled()) event.begin();
+        String last;
+        try (FileChannel ch = FileChannel.open(logPath, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buf = ByteBuffer.allocate((int) (end - start));
+            while (buf.hasRemaining() && ch.read(buf, start + buf.position()) >= 0) {
+                // keep reading until the tail record is complete
+            }
+            last = new String(buf.array(), 0, buf.position(), StandardCharsets.UTF_8);
+            ch.truncate(start);
+            force(ch);
+        }
+        commit(event, PersistEvent.POP_MOVE, end - start);
 
-        StringBuilder sb = new StringBuilder();
-        for (String ln : lines) sb.append(ln).append("\n");
+        count--;
+        end = start;
+        return MoveRecord.parse(last);
+    }
 
-        Files.writeString(logPath, sb.toString(), StandardCharsets.UTF_8,
-                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+    // fsync per durability level: nothing at NONE, contents at DATA, contents and metadata at FULL.
+    private void force(FileChannel ch) throws IOException {
+        if (durability != Durability.NONE) ch.force(durability == Durability.FULL);
+    }
 
-        return MoveRecord.parse(last);
+    private void commit(PersistEvent event, String operation, long bytes) {
+        event.end();
+        if (!event.shouldCommit()) return;
+        event.operation = operation;
+        event.path = logPath.toString();
+        event.bytes = bytes;
+        event.commit();
+    }
+
+    // Builds the offset index from the file the first time it is needed.
+    private void ensureIndexed() throws IOException {
+        if (end >= 0) return;
+        ensureExists();
+        if (end >= 0) return; // just created empty
+
+        byte[] data = Files.readAllBytes(logPath);
+        count = 0;
+        int lineStart = 0;
+        boolean hasContent = false;
+        for (int i = 0; i <= data.length; i++) {
+            if (i == data.length || data[i] == '\n') {
+                if (hasContent) {
+                    if (count == offsets.length) offsets = Arrays.copyOf(offsets, count * 2);
+                    offsets[count++] = lineStart;
+                }
+                lineStart = i + 1;
+                hasContent = false;
+            } else if (!Character.isWhitespace(data[i])) {
+                hasContent = true;
+            }
+        }
+        end = data.length;
+
+        // a hand-edited log may lack the final newline; appends must start on a fresh line
+        if (end > 0 && data[data.length - 1] != '\n') {
+            Files.write(logPath, new byte[] {'\n'}, StandardOpenOption.APPEND);
+            end++;
+        }
     }
 }
@@ -0,0 +1,77 @@
+package logging;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts move logs between the text format of {@link MoveLog} and the
+ * binary format of {@link MappedMoveLog}. Source and target may be the same
+ * path; the result is written to a temp file and moved into place.
+ *
+ * Usage: java logging.MoveLogConverter &lt;in&gt; &lt;out&gt;
+ * (the direction is picked from the input's format)
+ */
+public class MoveLogConverter {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: java logging.MoveLogConverter <in> <out>");
+            System.exit(2);
+        }
+        Path in = Paths.get(args[0]);
+        Path out = Paths.get(args[1]);
+        int n = isBinary(in) ? binaryToText(in, out) : textToBinary(in, out);
+        System.out.println("Converted " + n + " moves to " + out);
+    }
+
+    public static boolean isBinary(Path log) throws IOException {
+        if (!Files.exists(log) || Files.size(log) < MappedMoveLog.HEADER_BYTES) return false;
+        try (var in = Files.newInputStream(log)) {
+            byte[] head = in.readNBytes(4);
+            return ByteBuffer.wrap(head).getInt() == MappedMoveLog.MAGIC;
+        }
+    }
+
+    public static int textToBinary(Path textLog, Path binaryLog) throws IOException {
+        List<MoveRecord> records = new ArrayList<>();
+        for (String ln : Files.readAllLines(textLog, StandardCharsets.UTF_8)) {
+            if (!ln.trim().isEmpty()) records.add(MoveRecord.parse(ln));
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(MappedMoveLog.HEADER_BYTES + records.size() * 2);
+        buf.putInt(MappedMoveLog.MAGIC).putInt(records.size());
+        for (MoveRecord rec : records) buf.putShort(rec.pack());
+        replace(binaryLog, buf.array());
+        return records.size();
+    }
+
+    public static int binaryToText(Path binaryLog, Path textLog) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(binaryLog));
+        if (buf.getInt() != MappedMoveLog.MAGIC) {
+            throw new IllegalArgumentException("Not a binary move log: " + binaryLog);
+        }
+        int count = buf.getInt();
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(MoveRecord.unpack(buf.getShort()).toLogLine()).append('\n');
+        }
+        replace(textLog, sb.toString().getBytes(StandardCharsets.UTF_8));
+        return count;
+    }
+
+    private static void replace(Path target, byte[] content) throws IOException {
+        Path abs = target.toAbsolutePath();
+        Files.createDirectories(abs.getParent());
+        Path tmp = abs.resolveSibling(abs.getFileName() + ".tmp");
+        Files.write(tmp, content);
+        Files.move(tmp, abs, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
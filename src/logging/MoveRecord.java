@@ -28,6 +28,16 @@ public class MoveRecord {
         return "(" + row1 + "," + col1 + "," + newVal + "," + prevVal + ")";
     }
 
+    // Packs the four fields into 16 bits: row, col, new, prev as 4-bit nibbles (high to low).
+    public short pack() {
+        return (short) ((row1 << 12) | (col1 << 8) | (newVal << 4) | prevVal);
+    }
+
+    public static MoveRecord unpack(short packed) {
+        int p = packed & 0xFFFF;
+        return new MoveRecord(p >>> 12, (p >>> 8) & 0xF, (p >>> 4) & 0xF, p & 0xF);
+    }
+
     public static MoveRecord parse(String line) {
         if (line == null) throw new IllegalArgumentException("Null log line.");
 
@@ -0,0 +1,30 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** One GameDriver batch, from the first puzzle dug to the last game saved. */
+@Name("sudoku.Generation")
+@Label("Game Generation")
+@Category({"Sudoku", "Generator"})
+public class GenerationEvent extends jdk.jfr.Event {
+
+    @Label("Source")
+    public String source;
+
+    @Label("Games")
+    @Description("Games written")
+    public int games;
+
+    @Label("Skipped")
+    @Description("Games not written because every digging attempt repeated an earlier puzzle")
+    public int skipped;
+
+    @Label("Threads")
+    public int threads;
+
+    @Label("Seed")
+    public long seed;
+}
@@ -0,0 +1,119 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram in nanoseconds with HDR-style log-linear buckets:
+ * every power of two is split into 16 equal sub-buckets, so any recorded value
+ * is reported within 1/16 (about 6%) of itself, from 1 ns up to hours, in a
+ * fixed 960-slot array. Recording is one atomic increment, two adders and a
+ * max accumulator (which only writes when the maximum grows); readers take a
+ * {@link Snapshot} without stopping writers.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB;
+
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        buckets.incrementAndGet(bucket(nanos));
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    /** Records the time since {@code start}, a value from {@link Metrics#start()}; no-op when metrics are off. */
+    public void recordSince(long start) {
+        if (Metrics.ENABLED) record(System.nanoTime() - start);
+    }
+
+    static int bucket(long v) {
+        if (v < SUB) return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v); // >= SUB_BITS
+        int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB - 1);
+        return (exp - SUB_BITS + 1) * SUB + sub;
+    }
+
+    // Largest value that falls into bucket i.
+    static long upperBound(int i) {
+        if (i < SUB) return i;
+        int exp = i / SUB + SUB_BITS - 1;
+        long sub = i % SUB;
+        long width = 1L << (exp - SUB_BITS);
+        return (1L << exp) + (sub + 1) * width - 1;
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            n += counts[i];
+        }
+        return new Snapshot(name, n, totalNanos.sum(), maxNanos.get(), counts);
+    }
+
+    /** Point-in-time view of a histogram. Percentiles are bucket upper bounds. */
+    public static final class Snapshot {
+        private final String name;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long[] counts;
+
+        Snapshot(String name, long count, long totalNanos, long maxNanos, long[] counts) {
+            this.name = name;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.counts = counts;
+        }
+
+        public String getName() { return name; }
+        public long getCount() { return count; }
+        public long getMaxNanos() { return maxNanos; }
+
+        public double getMeanNanos() {
+            return count == 0 ? 0.0 : (double) totalNanos / count;
+        }
+
+        /** Value at or below which {@code percentile} percent of recordings fall. */
+        public long getPercentileNanos(double percentile) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(upperBound(i), maxNanos);
+            }
+            return maxNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s count=%d mean=%.1fus p50=%.1fus p90=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus",
+                    name, count, getMeanNanos() / 1000.0,
+                    getPercentileNanos(50) / 1000.0, getPercentileNanos(90) / 1000.0,
+                    getPercentileNanos(99) / 1000.0, getPercentileNanos(99.9) / 1000.0,
+                    maxNanos / 1000.0);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide registry of operation counters and latency histograms.
+ *
+ * Metrics are off unless -Dsudoku.metrics=true. The switch is a static final
+ * constant, so when it is off {@link #start()} returns 0 and
+ * {@link LatencyHistogram#recordSince} does nothing, and the JIT drops both
+ * from the hot path. Instrumented classes look their histograms up once:
+ *
+ *   private static final LatencyHistogram MOVES = Metrics.histogram("controller.applyMove");
+ *   long t = Metrics.start();
+ *   ...
+ *   MOVES.recordSince(t);
+ *
+ * With -Dsudoku.metrics.dump=<file> the current snapshot is also rewritten to
+ * that file every sudoku.metrics.dumpSeconds seconds (default 60) and at exit.
+ */
+public final class Metrics {
+
+    public static final String ENABLED_PROPERTY = "sudoku.metrics";
+    public static final String DUMP_PROPERTY = "sudoku.metrics.dump";
+    public static final String DUMP_SECONDS_PROPERTY = "sudoku.metrics.dumpSeconds";
+
+    public static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService dumper; // guarded by Metrics.class
+
+    private Metrics() {
+    }
+
+    public static LatencyHistogram histogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    public static LongAdder counter(String name) {
+        return COUNTERS.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    /** Start time for {@link LatencyHistogram#recordSince}; 0 (no clock read) when metrics are off. */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0L;
+    }
+
+    // Adds 1 to a counter when metrics are on.
+    public static void increment(LongAdder counter) {
+        if (ENABLED) counter.increment();
+    }
+
+    /** Every histogram and counter, sorted by name. */
+    public static MetricsSnapshot snapshot() {
+        Map<String, LatencyHistogram.Snapshot> histograms = new TreeMap<>();
+        for (LatencyHistogram h : HISTOGRAMS.values()) {
+            histograms.put(h.getName(), h.snapshot());
+        }
+        Map<String, Long> counters = new TreeMap<>();
+        COUNTERS.forEach((name, c) -> counters.put(name, c.sum()));
+        return new MetricsSnapshot(Instant.now(), histograms, counters);
+    }
+
+    /**
+     * Starts the periodic dump named by the system properties, if metrics are on
+     * and a dump file is configured. Safe to call more than once.
+     */
+    public static synchronized void startConfiguredDump() {
+        String file = System.getProperty(DUMP_PROPERTY);
+        if (!ENABLED || file == null || dumper != null) return;
+
+        Path out = Paths.get(file);
+        long period = Long.getLong(DUMP_SECONDS_PROPERTY, 60L);
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        dumper.scheduleAtFixedRate(() -> dumpQuietly(out), period, period, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> dumpQuietly(out), "metrics-dump-exit"));
+    }
+
+    /** Writes the current snapshot to {@code out} through a temp file, so readers never see half a dump. */
+    public static void dump(Path out) throws IOException {
+        Path abs = out.toAbsolutePath();
+        if (abs.getParent() != null) Files.createDirectories(abs.getParent());
+        Path tmp = abs.resolveSibling(abs.getFileName() + ".tmp");
+        Files.writeString(tmp, snapshot().toString(), StandardCharsets.UTF_8);
+        try {
+            Files.move(tmp, abs, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, abs, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void dumpQuietly(Path out) {
+        try {
+            dump(out);
+        } catch (IOException e) {
+            System.err.println("Could not write metrics to " + out + ": " + e.getMessage());
+        }
+    }
+}
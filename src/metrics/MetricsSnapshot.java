@@ -0,0 +1,50 @@
+package metrics;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+
+/** Immutable view of every metric at one instant; toString() is the dump file format. */
+public class MetricsSnapshot {
+
+    private final Instant takenAt;
+    private final Map<String, LatencyHistogram.Snapshot> histograms;
+    private final Map<String, Long> counters;
+
+    MetricsSnapshot(Instant takenAt, Map<String, LatencyHistogram.Snapshot> histograms, Map<String, Long> counters) {
+        this.takenAt = takenAt;
+        this.histograms = Collections.unmodifiableMap(histograms);
+        this.counters = Collections.unmodifiableMap(counters);
+    }
+
+    public Instant getTakenAt() {
+        return takenAt;
+    }
+
+    public Map<String, LatencyHistogram.Snapshot> getHistograms() {
+        return histograms;
+    }
+
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    // Null when nothing was registered under that name.
+    public LatencyHistogram.Snapshot histogram(String name) {
+        return histograms.get(name);
+    }
+
+    public long counter(String name) {
+        return counters.getOrDefault(name, 0L);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("# metrics at ").append(takenAt).append('\n');
+        for (LatencyHistogram.Snapshot h : histograms.values()) {
+            sb.append(h).append('\n');
+        }
+        counters.forEach((name, value) -> sb.append(name).append(" total=").append(value).append('\n'));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,33 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** A board file or move log read or written; the event duration is the I/O time. */
+@Name("sudoku.Persist")
+@Label("Persist")
+@Category({"Sudoku", "Storage"})
+public class PersistEvent extends jdk.jfr.Event {
+
+    public static final String READ_BOARD = "readBoard";
+    public static final String WRITE_BOARD = "writeBoard";
+    public static final String APPEND_MOVE = "appendMove";
+    public static final String POP_MOVE = "popMove";
+    public static final String READ_LOG = "readLog";
+    public static final String FORCE_LOG = "forceLog";
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Durability")
+    public String durability;
+}
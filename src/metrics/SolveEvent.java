@@ -0,0 +1,30 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** One call into SudokuSolver, from the cache lookup to the returned board. */
+@Name("sudoku.Solve")
+@Label("Solve")
+@Category({"Sudoku", "Solver"})
+public class SolveEvent extends jdk.jfr.Event {
+
+    @Label("Strategy")
+    public String strategy;
+
+    @Label("Blanks")
+    @Description("Empty cells on the board passed in")
+    public int blanks;
+
+    @Label("Nodes")
+    @Description("Search nodes visited; 0 for a cache hit")
+    public long nodes;
+
+    @Label("Cache Hit")
+    public boolean cached;
+
+    @Label("Solved")
+    public boolean solved;
+}
@@ -0,0 +1,23 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** One board verification. */
+@Name("sudoku.Verify")
+@Label("Verify")
+@Category({"Sudoku", "Verifier"})
+public class VerifyEvent extends jdk.jfr.Event {
+
+    @Label("Status")
+    public String status;
+
+    @Label("Duplicates")
+    public int duplicates;
+
+    @Label("Incremental")
+    @Description("Answered from the controller's running counts instead of a board scan")
+    public boolean incremental;
+}
@@ -1,62 +1,48 @@
 package model;
 
-import java.io.File;
 import java.io.FileNotFoundException;
-import java.util.Scanner;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.SplittableRandom;
 
 public class Board {
-    private final int[][] grid = new int[9][9];
+    // Zobrist keys: one random 64-bit word per (cell, digit); digit 0 maps to 0 so an empty board hashes to 0.
+    private static final long[] ZOBRIST = new long[81 * 10];
 
-    public Board() {}
-
-    // copy constructor
-    public Board(Board other) {
-        for (int r = 0; r < 9; r++) {
-            System.arraycopy(other.grid[r], 0, this.grid[r], 0, 9);
+    static {
+        SplittableRandom rnd = new SplittableRandom(0x5D0C0B0A4DL); // fixed, so hashes are stable across runs
+        for (int i = 0; i < 81; i++) {
+            for (int v = 1; v <= 9; v++) {
+                ZOBRIST[i * 10 + v] = rnd.nextLong();
+            }
         }
     }
 
-    public static Board fromCSV(String path) throws FileNotFoundException {
-        Board br = new Board();
-        try (Scanner sc = new Scanner(new File(path))) {
-
-            for (int row = 0; row < 9; row++) {
-                if (!sc.hasNextLine()) {
-                    throw new IllegalArgumentException("CSV file does not contain 9 lines.");
-                }
-
-                String line = sc.nextLine().trim();
-                String[] parts = line.split(",");
+    // Row-major cells (index row * 9 + col); one flat array instead of nine row arrays.
+    private final byte[] cells;
+    // XOR of ZOBRIST[cell * 10 + value] over all cells, updated on every set.
+    private long hash;
 
-                if (parts.length != 9) {
-                    throw new IllegalArgumentException("Line " + (row + 1) + " must contain 9 comma-separated values.");
-                }
-
-                for (int col = 0; col < 9; col++) {
-                    int val;
-                    try {
-                        val = Integer.parseInt(parts[col].trim());
-                    } catch (NumberFormatException e) {
-                        throw new IllegalArgumentException(
-                                "Invalid number at row " + (row + 1) + ", col " + (col + 1) + ": " + parts[col].trim()
-                        );
-                    }
+    public Board() {
+        this.cells = new byte[81];
+    }
 
-                    if (val < 0 || val > 9) {
-                        throw new IllegalArgumentException(
-                                "Value out of range (0..9) at row " + (row + 1) + ", col " + (col + 1) + ": " + val
-                        );
-                    }
+    // copy constructor
+    public Board(Board other) {
+        this.cells = other.cells.clone();
+        this.hash = other.hash;
+    }
 
-                    br.grid[row][col] = val;
-                }
-            }
-        }
-        return br;
+    // Reads a 9-line, comma-separated board; see CsvBoardParser for the accepted format.
+    public static Board fromCSV(String path) throws FileNotFoundException {
+        return CsvBoardParser.read(path);
     }
 
+    // Range-checked per coordinate: a flat index alone would let get(0, 9) read cell (1, 0).
     public int get(int row, int col) {
-        return grid[row][col];
+        Objects.checkIndex(row, 9);
+        Objects.checkIndex(col, 9);
+        return cells[row * 9 + col];
     }
     public void set(int row, int col, int value) {
         if (row < 0 || row > 8 || col < 0 || col > 8) {
@@ -65,23 +51,42 @@ public class Board {
         if (value < 0 || value > 9) {
             throw new IllegalArgumentException("Value out of range (0..9).");
         }
-        grid[row][col] = value;
+        put(row * 9 + col, value);
+    }
+
+    private void put(int i, int value) {
+        hash ^= ZOBRIST[i * 10 + cells[i]] ^ ZOBRIST[i * 10 + value];
+        cells[i] = (byte) value;
+    }
+
+    // 64-bit Zobrist hash of the cell contents, kept current in O(1) by set().
+    public long zobristHash() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Board)) return false;
+        Board other = (Board) o;
+        return hash == other.hash && Arrays.equals(cells, other.cells);
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (hash ^ (hash >>> 32));
     }
 
     public boolean hasZero() {
-        for (int r = 0; r < 9; r++) {
-            for (int c = 0; c < 9; c++) {
-                if (grid[r][c] == 0) return true;
-            }
+        for (int i = 0; i < 81; i++) {
+            if (cells[i] == 0) return true;
         }
         return false;
     }
     public int countZeros() {
     int cnt = 0;
-    for (int r = 0; r < 9; r++) {
-        for (int c = 0; c < 9; c++) {
-            if (grid[r][c] == 0) cnt++;
-        }
+    for (int i = 0; i < 81; i++) {
+        if (cells[i] == 0) cnt++;
     }
     return cnt;
 }
@@ -0,0 +1,155 @@
+package model;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Byte-level reader behind {@link Board#fromCSV}. Only the first 9 lines of the
+ * file are read, into a small per-thread buffer that is reused between calls,
+ * and single-digit cells are decoded straight from the bytes, so a well-formed
+ * board is parsed without Scanner, split, parseInt or any temporary strings.
+ * Anything unusual (signs, leading zeros, junk) falls back to Integer.parseInt
+ * on that one cell, which keeps the accepted inputs and the error messages
+ * those of the old Scanner/split parser: lines end at the separators
+ * Scanner.nextLine knows (\n, \r\n, \r and UTF-8 U+0085, U+2028, U+2029),
+ * the first 9 are each trimmed and split on commas with trailing empty fields
+ * dropped, and the rest of the file is ignored.
+ */
+final class CsvBoardParser {
+
+    // Plenty for a board; a file with longer lines gets a larger buffer for that call only.
+    private static final int BUFFER_BYTES = 512;
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[BUFFER_BYTES]);
+
+    private CsvBoardParser() {
+    }
+
+    static Board read(String path) throws FileNotFoundException {
+        byte[] buf = BUFFER.get();
+        int len = 0;
+        int lines = 0;
+        int scanned = 0;
+        try (FileInputStream in = new FileInputStream(path)) {
+            int n;
+            while (lines < 9 && (n = in.read(buf, len, buf.length - len)) > 0) {
+                len += n;
+                // count finished lines; the last two bytes wait, since a separator may continue past them
+                while (lines < 9 && scanned < len - 2) {
+                    int sep = separatorLength(buf, scanned, len);
+                    if (sep > 0) lines++;
+                    scanned += Math.max(sep, 1);
+                }
+                if (len == buf.length) {
+                    buf = Arrays.copyOf(buf, buf.length * 2);
+                }
+            }
+        } catch (FileNotFoundException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + path, e);
+        }
+        return parse(buf, len);
+    }
+
+    static Board parse(byte[] buf, int len) {
+        Board board = new Board();
+        int pos = 0;
+        for (int row = 0; row < 9; row++) {
+            if (pos >= len) {
+                throw new IllegalArgumentException("CSV file does not contain 9 lines.");
+            }
+
+            // one line: up to the next separator or the end of the data
+            int lineStart = pos;
+            int sep = 0;
+            while (pos < len && (sep = separatorLength(buf, pos, len)) == 0) pos++;
+            int lineEnd = pos;
+            pos += sep;
+
+            // String.trim(): drop bytes <= ' ' at both ends
+            while (lineStart < lineEnd && isTrimmed(buf[lineStart])) lineStart++;
+            while (lineEnd > lineStart && isTrimmed(buf[lineEnd - 1])) lineEnd--;
+
+            if (fieldCount(buf, lineStart, lineEnd) != 9) {
+                throw new IllegalArgumentException("Line " + (row + 1) + " must contain 9 comma-separated values.");
+            }
+
+            int fieldStart = lineStart;
+            for (int col = 0; col < 9; col++) {
+                int fieldEnd = fieldStart;
+                while (fieldEnd < lineEnd && buf[fieldEnd] != ',') fieldEnd++;
+                board.set(row, col, cell(buf, fieldStart, fieldEnd, row, col));
+                fieldStart = fieldEnd + 1;
+            }
+        }
+        return board;
+    }
+
+    // Length in bytes of the line separator at buf[pos], or 0 if there is none.
+    private static int separatorLength(byte[] buf, int pos, int len) {
+        switch (buf[pos]) {
+            case '\n':
+                return 1;
+            case '\r':
+                return pos + 1 < len && buf[pos + 1] == '\n' ? 2 : 1;
+            case (byte) 0xC2: // U+0085
+                return pos + 1 < len && buf[pos + 1] == (byte) 0x85 ? 2 : 0;
+            case (byte) 0xE2: // U+2028, U+2029
+                return pos + 2 < len && buf[pos + 1] == (byte) 0x80
+                        && (buf[pos + 2] == (byte) 0xA8 || buf[pos + 2] == (byte) 0xA9) ? 3 : 0;
+            default:
+                return 0;
+        }
+    }
+
+    // Number of fields String.split(",") would return: trailing empty fields do not count.
+    private static int fieldCount(byte[] buf, int start, int end) {
+        if (start == end) return 1; // "".split(",") is [""]
+        int fields = 1;
+        int lastNonEmpty = 0;
+        int fieldStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || buf[i] == ',') {
+                if (i > fieldStart) lastNonEmpty = fields;
+                if (i < end) fields++;
+                fieldStart = i + 1;
+            }
+        }
+        return lastNonEmpty;
+    }
+
+    private static int cell(byte[] buf, int start, int end, int row, int col) {
+        int s = start;
+        int e = end;
+        while (s < e && isTrimmed(buf[s])) s++;
+        while (e > s && isTrimmed(buf[e - 1])) e--;
+
+        if (e - s == 1 && buf[s] >= '0' && buf[s] <= '9') {
+            return buf[s] - '0'; // the common case: nothing to allocate
+        }
+
+        String text = new String(buf, start, end - start, StandardCharsets.UTF_8).trim();
+        int val;
+        try {
+            val = Integer.parseInt(text);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(
+                    "Invalid number at row " + (row + 1) + ", col " + (col + 1) + ": " + text
+            );
+        }
+        if (val < 0 || val > 9) {
+            throw new IllegalArgumentException(
+                    "Value out of range (0..9) at row " + (row + 1) + ", col " + (col + 1) + ": " + val
+            );
+        }
+        return val;
+    }
+
+    private static boolean isTrimmed(byte b) {
+        return (b & 0xFF) <= ' ';
+    }
+}
@@ -3,6 +3,12 @@ package model;
 import java.util.List;
 
 public class VerificationResult {
+    // VALID and INCOMPLETE results never carry duplicates, so they can be shared.
+    private static final VerificationResult VALID_RESULT =
+            new VerificationResult(VerificationStatus.VALID, List.of());
+    private static final VerificationResult INCOMPLETE_RESULT =
+            new VerificationResult(VerificationStatus.INCOMPLETE, List.of());
+
     private final VerificationStatus status;
     private final List<Duplicate> duplicates;
 
@@ -11,10 +17,21 @@ public class VerificationResult {
         this.duplicates = duplicates;
     }
 
+    // Shared result for a status that has no duplicate details (VALID or INCOMPLETE).
+    public static VerificationResult withoutDuplicates(VerificationStatus status) {
+        switch (status) {
+            case VALID: return VALID_RESULT;
+            case INCOMPLETE: return INCOMPLETE_RESULT;
+            default:
+                throw new IllegalArgumentException("An INVALID result needs its duplicates.");
+        }
+    }
+
     public VerificationStatus getStatus() {
         return status;
     }
 
+    // Empty and unmodifiable for VALID and INCOMPLETE; copy the list before changing it.
     public List<Duplicate> getDuplicates() {
         return duplicates;
     }
@@ -0,0 +1,197 @@
+package solver;
+
+import model.Board;
+
+/**
+ * Backtracking solver that keeps one candidate bitmask per row, column and box.
+ * Bit (d - 1) of a mask is set when digit d is already placed in that unit.
+ * The search always branches on the empty cell with the fewest candidates,
+ * so forced cells are filled first and dead ends are found early. When no
+ * cell is forced it also looks for hidden singles (a digit with only one
+ * possible cell in some unit) and prunes units where a digit has no cell left.
+ */
+public class BitmaskSolver implements SolverStrategy {
+
+    private static final int ALL = 0x1FF;
+
+    /**
+     * Returns a solved copy of the board, or null if the givens conflict
+     * or no solution exists. The input board is never modified.
+     */
+    @Override
+    public Board solve(Board board) {
+        return solve(board, null);
+    }
+
+    @Override
+    public Board solve(Board board, SearchStats stats) {
+        Search s = Search.of(board);
+        if (s == null) return null;
+        boolean solved = s.solve();
+        if (stats != null) stats.addNodes(s.nodes);
+        return solved ? s.toBoard() : null;
+    }
+
+    /**
+     * Counts solutions of the board, stopping as soon as {@code limit} have been found.
+     * {@code countSolutions(board, 2) == 1} is the usual uniqueness test.
+     * Returns 0 when the givens already conflict.
+     */
+    public int countSolutions(Board board, int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("limit must be > 0");
+        Search s = Search.of(board);
+        if (s == null) return 0;
+        s.search(0, limit);
+        return s.found;
+    }
+
+    @Override
+    public String name() {
+        return "bitmask";
+    }
+
+    // One search per call, so a single solver instance can be shared between threads.
+    private static final class Search {
+        private final int[] cells = new int[81];
+        private final int[] rows = new int[9];
+        private final int[] cols = new int[9];
+        private final int[] boxes = new int[9];
+        private final int[] empties = new int[81];
+        private final int[] cand = new int[81]; // scratch: candidates of each empty cell at this node
+        private int emptyCount;
+        private int found;
+        private long nodes;
+
+        static Search of(Board board) {
+            Search s = new Search();
+            for (int r = 0; r < 9; r++) {
+                for (int c = 0; c < 9; c++) {
+                    int v = board.get(r, c);
+                    int i = r * 9 + c;
+                    if (v == 0) {
+                        s.empties[s.emptyCount++] = i;
+                        continue;
+                    }
+                    int bit = 1 << (v - 1);
+                    int b = box(r, c);
+                    if (((s.rows[r] | s.cols[c] | s.boxes[b]) & bit) != 0) {
+                        return null; // duplicate among the givens
+                    }
+                    s.cells[i] = v;
+                    s.rows[r] |= bit;
+                    s.cols[c] |= bit;
+                    s.boxes[b] |= bit;
+                }
+            }
+            return s;
+        }
+
+        boolean solve() {
+            return search(0, 1);
+        }
+
+        // Fills empties[depth..] and returns true once `limit` solutions were seen.
+        private boolean search(int depth, int limit) {
+            nodes++;
+            if (depth == emptyCount) {
+                return ++found >= limit;
+            }
+
+            // Pick the most constrained remaining cell and swap it into position `depth`.
+            int bestSlot = -1;
+            int bestCand = 0;
+            int bestCount = 10;
+            for (int k = depth; k < emptyCount; k++) {
+                int i = empties[k];
+                int r = i / 9;
+                int c = i % 9;
+                int m = ~(rows[r] | cols[c] | boxes[box(r, c)]) & ALL;
+                cand[i] = m;
+                int n = Integer.bitCount(m);
+                if (n < bestCount) {
+                    bestCount = n;
+                    bestCand = m;
+                    bestSlot = k;
+                    if (n <= 1) break;
+                }
+            }
+            if (bestCount == 0) return false;
+
+            if (bestCount > 1) {
+                // No naked single: look for a digit that fits in only one cell of some unit.
+                for (int u = 0; u < 27; u++) {
+                    int once = 0;
+                    int twice = 0;
+                    int placed = 0;
+                    for (int i : Units.CELLS[u]) {
+                        if (cells[i] != 0) {
+                            placed |= 1 << (cells[i] - 1);
+                            continue;
+                        }
+                        twice |= once & cand[i];
+                        once |= cand[i];
+                    }
+                    int needed = ~placed & ALL;
+                    if ((needed & ~once) != 0) return false; // some digit has nowhere to go
+                    int hidden = once & ~twice & needed;
+                    if (hidden != 0) {
+                        int bit = hidden & -hidden;
+                        for (int i : Units.CELLS[u]) {
+                            if (cells[i] == 0 && (cand[i] & bit) != 0) {
+                                bestCand = bit;
+                                bestSlot = slotOf(i, depth);
+                                break;
+                            }
+                        }
+                        break;
+                    }
+                }
+            }
+
+            int cell = empties[bestSlot];
+            empties[bestSlot] = empties[depth];
+            empties[depth] = cell;
+
+            int r = cell / 9;
+            int c = cell % 9;
+            int b = box(r, c);
+            while (bestCand != 0) {
+                int bit = bestCand & -bestCand;
+                bestCand ^= bit;
+
+                cells[cell] = Integer.numberOfTrailingZeros(bit) + 1;
+                rows[r] |= bit;
+                cols[c] |= bit;
+                boxes[b] |= bit;
+
+                boolean done = search(depth + 1, limit);
+
+                rows[r] ^= bit;
+                cols[c] ^= bit;
+                boxes[b] ^= bit;
+                if (done) return true;
+            }
+            cells[cell] = 0;
+            return false;
+        }
+
+        private int slotOf(int cell, int from) {
+            for (int k = from; k < emptyCount; k++) {
+                if (empties[k] == cell) return k;
+            }
+            throw new IllegalStateException("cell " + cell + " is not empty");
+        }
+
+        Board toBoard() {
+            Board out = new Board();
+            for (int i = 0; i < 81; i++) {
+                out.set(i / 9, i % 9, cells[i]);
+            }
+            return out;
+        }
+
+        private static int box(int r, int c) {
+            return (r / 3) * 3 + c / 3;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package solver;
+
+import model.Board;
+import model.VerificationStatus;
+import verifier.BoardVerifier;
+
+import java.util.List;
+
+/**
+ * The original solver: enumerates all 9^k assignments of the blank cells and
+ * verifies each one. Only practical for a handful of blanks; kept as a
+ * reference strategy to compare the faster ones against.
+ */
+public class BruteForceSolver implements SolverStrategy {
+
+    private final BoardVerifier verifier;
+
+    public BruteForceSolver(BoardVerifier verifier) {
+        this.verifier = verifier;
+    }
+
+    @Override
+    public Board solve(Board board) {
+        return solve(board, null);
+    }
+
+    // Each candidate assignment verified counts as one node.
+    @Override
+    public Board solve(Board board, SearchStats stats) {
+        List<BlankCell> blanks = BlankFinder.findBlanks(board);
+        if (blanks.isEmpty()) {
+            return verifier.status(board) == VerificationStatus.VALID ? new Board(board) : null;
+        }
+
+        BoardFlyweight fly = new BoardFlyweight(board);
+        AssignmentIterator it = new AssignmentIterator(blanks.size());
+
+        long tried = 0;
+        while (it.hasNext()) {
+            int[] candidate = it.next();
+            tried++;
+
+            fly.apply(blanks, candidate);
+
+            if (verifier.status(fly.getWorking()) == VerificationStatus.VALID) {
+                if (stats != null) stats.addNodes(tried);
+                return new Board(fly.getWorking()); // return a copy of the solved board
+            }
+
+            fly.clear(blanks);
+        }
+
+        if (stats != null) stats.addNodes(tried);
+        return null; // no solution found within brute-force search
+    }
+
+    @Override
+    public String name() {
+        return "bruteforce";
+    }
+}
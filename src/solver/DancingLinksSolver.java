@@ -0,0 +1,188 @@
+package solver;
+
+import model.Board;
+
+/**
+ * Knuth's Algorithm X over the Sudoku exact-cover matrix, using dancing links.
+ * The 324 columns are the cell, row-digit, column-digit and box-digit constraints;
+ * each matrix row places one digit in one cell. Always branching on the column
+ * with the fewest rows keeps the worst case predictable on sparse grids.
+ */
+public class DancingLinksSolver implements SolverStrategy {
+
+    private static final int COLUMNS = 324;
+
+    @Override
+    public Board solve(Board board) {
+        return solve(board, null);
+    }
+
+    @Override
+    public Board solve(Board board, SearchStats stats) {
+        Matrix m = Matrix.of(board);
+        if (m == null) return null;
+        boolean solved = m.search(0);
+        if (stats != null) stats.addNodes(m.visited);
+        return solved ? m.toBoard() : null;
+    }
+
+    @Override
+    public String name() {
+        return "dlx";
+    }
+
+    // Array-backed links; node 0 is the root and nodes 1..324 are column headers.
+    private static final class Matrix {
+        private final int[] left;
+        private final int[] right;
+        private final int[] up;
+        private final int[] down;
+        private final int[] column;
+        private final int[] choice;   // cell * 9 + digit for each data node
+        private final int[] size = new int[COLUMNS + 1];
+        private final int[] solution = new int[81];
+        private int nodes;
+        private long visited;  // search calls, for SearchStats
+
+        private Matrix(int capacity) {
+            left = new int[capacity];
+            right = new int[capacity];
+            up = new int[capacity];
+            down = new int[capacity];
+            column = new int[capacity];
+            choice = new int[capacity];
+            for (int i = 0; i <= COLUMNS; i++) {
+                left[i] = i - 1;
+                right[i] = i + 1;
+                up[i] = i;
+                down[i] = i;
+                column[i] = i;
+            }
+            left[0] = COLUMNS;
+            right[COLUMNS] = 0;
+            nodes = COLUMNS + 1;
+        }
+
+        static Matrix of(Board board) {
+            int[] rowUsed = new int[9];
+            int[] colUsed = new int[9];
+            int[] boxUsed = new int[9];
+            int[] cells = new int[81];
+            for (int r = 0; r < 9; r++) {
+                for (int c = 0; c < 9; c++) {
+                    int v = board.get(r, c);
+                    if (v == 0) continue;
+                    int bit = 1 << (v - 1);
+                    int b = (r / 3) * 3 + c / 3;
+                    if (((rowUsed[r] | colUsed[c] | boxUsed[b]) & bit) != 0) {
+                        return null; // duplicate among the givens
+                    }
+                    rowUsed[r] |= bit;
+                    colUsed[c] |= bit;
+                    boxUsed[b] |= bit;
+                    cells[r * 9 + c] = v;
+                }
+            }
+
+            Matrix m = new Matrix(COLUMNS + 1 + 729 * 4);
+            for (int i = 0; i < 81; i++) {
+                int r = i / 9;
+                int c = i % 9;
+                int b = (r / 3) * 3 + c / 3;
+                if (cells[i] != 0) {
+                    m.addRow(r, c, b, cells[i] - 1);
+                    continue;
+                }
+                int free = ~(rowUsed[r] | colUsed[c] | boxUsed[b]) & 0x1FF;
+                while (free != 0) {
+                    int bit = free & -free;
+                    free ^= bit;
+                    m.addRow(r, c, b, Integer.numberOfTrailingZeros(bit));
+                }
+            }
+            return m;
+        }
+
+        private void addRow(int r, int c, int b, int d) {
+            int first = nodes;
+            int id = (r * 9 + c) * 9 + d;
+            link(1 + r * 9 + c, id);
+            link(1 + 81 + r * 9 + d, id);
+            link(1 + 162 + c * 9 + d, id);
+            link(1 + 243 + b * 9 + d, id);
+            // close the horizontal ring of the four nodes just added
+            for (int n = first; n < nodes; n++) {
+                left[n] = n == first ? nodes - 1 : n - 1;
+                right[n] = n == nodes - 1 ? first : n + 1;
+            }
+        }
+
+        private void link(int col, int id) {
+            int n = nodes++;
+            column[n] = col;
+            choice[n] = id;
+            up[n] = up[col];
+            down[n] = col;
+            down[up[col]] = n;
+            up[col] = n;
+            size[col]++;
+        }
+
+        private void cover(int col) {
+            right[left[col]] = right[col];
+            left[right[col]] = left[col];
+            for (int i = down[col]; i != col; i = down[i]) {
+                for (int j = right[i]; j != i; j = right[j]) {
+                    down[up[j]] = down[j];
+                    up[down[j]] = up[j];
+                    size[column[j]]--;
+                }
+            }
+        }
+
+        private void uncover(int col) {
+            for (int i = up[col]; i != col; i = up[i]) {
+                for (int j = left[i]; j != i; j = left[j]) {
+                    size[column[j]]++;
+                    down[up[j]] = j;
+                    up[down[j]] = j;
+                }
+            }
+            right[left[col]] = col;
+            left[right[col]] = col;
+        }
+
+        boolean search(int depth) {
+            visited++;
+            if (right[0] == 0) return true;
+
+            int col = right[0];
+            for (int j = right[col]; j != 0; j = right[j]) {
+                if (size[j] < size[col]) col = j;
+            }
+            if (size[col] == 0) return false;
+
+            cover(col);
+            for (int r = down[col]; r != col; r = down[r]) {
+                solution[depth] = choice[r];
+                for (int j = right[r]; j != r; j = right[j]) cover(column[j]);
+
+                if (search(depth + 1)) return true;
+
+                for (int j = left[r]; j != r; j = left[j]) uncover(column[j]);
+            }
+            uncover(col);
+            return false;
+        }
+
+        Board toBoard() {
+            Board out = new Board();
+            for (int i = 0; i < 81; i++) {
+                int id = solution[i];
+                int cell = id / 9;
+                out.set(cell / 9, cell % 9, id % 9 + 1);
+            }
+            return out;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package solver;
+
+import model.Difficulty;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Outcome of grading a puzzle: which techniques were needed and whether they were enough.
+ */
+public class GradeResult {
+    private final Set<Technique> techniques;
+    private final boolean solved;
+
+    public GradeResult(EnumSet<Technique> techniques, boolean solved) {
+        this.techniques = Collections.unmodifiableSet(EnumSet.copyOf(techniques));
+        this.solved = solved;
+    }
+
+    public Set<Technique> getTechniques() {
+        return techniques;
+    }
+
+    // False when the techniques ran out before the grid was filled.
+    public boolean isSolved() {
+        return solved;
+    }
+
+    public Technique hardestTechnique() {
+        Technique hardest = null;
+        for (Technique t : techniques) hardest = t; // EnumSet iterates in declaration order
+        return hardest;
+    }
+
+    /**
+     * EASY needs nothing beyond naked singles, MEDIUM also needs hidden singles,
+     * and HARD needs pairs, pointing or X-wing, or cannot be finished with them at all.
+     */
+    public Difficulty difficulty() {
+        if (!solved) return Difficulty.HARD;
+        Technique hardest = hardestTechnique();
+        if (hardest == null || hardest == Technique.NAKED_SINGLE) return Difficulty.EASY;
+        if (hardest == Technique.HIDDEN_SINGLE) return Difficulty.MEDIUM;
+        return Difficulty.HARD;
+    }
+
+    @Override
+    public String toString() {
+        return difficulty() + (solved ? " " : " (unfinished) ") + techniques;
+    }
+}
@@ -0,0 +1,19 @@
+package solver;
+
+/**
+ * Work counters a strategy fills in during {@link SolverStrategy#solve(model.Board, SearchStats)}.
+ * Not thread-safe; use one per solve.
+ */
+public class SearchStats {
+
+    private long nodes;
+
+    // Search nodes visited (assignments tried), summed over every solve this was passed to.
+    public long getNodes() {
+        return nodes;
+    }
+
+    void addNodes(long n) {
+        nodes += n;
+    }
+}
@@ -0,0 +1,102 @@
+package solver;
+
+import model.Board;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU map from a puzzle's givens to a solution found for it.
+ * Keys are the clues the puzzle started with, not the player's current
+ * board, so every partial board of the same puzzle shares one entry.
+ * A cached solution is only handed out for a board that agrees with it
+ * on every filled cell. All methods are thread-safe.
+ */
+public class SolutionCache {
+
+    // System property for the number of puzzles kept; 0 disables caching.
+    public static final String CAPACITY_PROPERTY = "sudoku.solver.cache";
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final int capacity;
+    private final Map<Board, Board> solutions;
+    private long hits;
+    private long misses;
+
+    public SolutionCache(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("capacity must be >= 0");
+        this.capacity = capacity;
+        this.solutions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Board, Board> eldest) {
+                return size() > SolutionCache.this.capacity;
+            }
+        };
+    }
+
+    public static SolutionCache fromConfiguration() {
+        String value = System.getProperty(CAPACITY_PROPERTY);
+        if (value == null) return new SolutionCache(DEFAULT_CAPACITY);
+        try {
+            return new SolutionCache(Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + CAPACITY_PROPERTY + ": " + value);
+        }
+    }
+
+    /**
+     * Returns a copy of the cached solution for {@code givens} if it matches
+     * every filled cell of {@code board}, otherwise null.
+     */
+    public synchronized Board lookup(Board givens, Board board) {
+        Board solution = solutions.get(givens);
+        if (solution == null || !agrees(solution, board)) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return new Board(solution);
+    }
+
+    public synchronized void put(Board givens, Board solution) {
+        if (capacity == 0) return;
+        // boards are mutable, so keep private copies
+        solutions.put(new Board(givens), new Board(solution));
+    }
+
+    public synchronized void clear() {
+        solutions.clear();
+    }
+
+    public synchronized int size() {
+        return solutions.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("size=%d/%d, hits=%d, misses=%d", solutions.size(), capacity, hits, misses);
+    }
+
+    // True when every non-empty cell of `partial` holds the same digit as `full`.
+    static boolean agrees(Board full, Board partial) {
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                int v = partial.get(r, c);
+                if (v != 0 && v != full.get(r, c)) return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,24 @@
+package solver;
+
+import model.Board;
+
+/**
+ * A way of solving a board. Implementations must not modify the input board
+ * and must return either a fully solved copy or null when no solution exists
+ * (including boards whose givens already conflict).
+ */
+public interface SolverStrategy {
+
+    Board solve(Board board);
+
+    /**
+     * Same as {@link #solve(Board)}, and adds the search nodes visited to
+     * {@code stats}. Strategies that do not count leave it untouched.
+     */
+    default Board solve(Board board, SearchStats stats) {
+        return solve(board);
+    }
+
+    // Short name used in configuration and logs, e.g. "bitmask" or "dlx".
+    String name();
+}
@@ -1,43 +1,111 @@
 package solver;
 
+import metrics.SolveEvent;
 import model.Board;
-import model.VerificationResult;
-import model.VerificationStatus;
 import verifier.BoardVerifier;
 
 import java.util.List;
 
 public class SudokuSolver {
 
-    private final BoardVerifier verifier;
+    // System property that selects the strategy: "bitmask" (default), "dlx" or "bruteforce".
+    public static final String STRATEGY_PROPERTY = "sudoku.solver";
+
+    private final SolverStrategy strategy;
+    private final SolutionCache cache;
 
     public SudokuSolver(BoardVerifier verifier) {
-        this.verifier = verifier;
+        this(strategyFor(System.getProperty(STRATEGY_PROPERTY, "bitmask"), verifier),
+                SolutionCache.fromConfiguration());
     }
 
-    public Board solveIfExactlyFiveBlanks(Board board) {
-        List<BlankCell> blanks = BlankFinder.findBlanks(board);
+    public SudokuSolver(SolverStrategy strategy) {
+        this(strategy, SolutionCache.fromConfiguration());
+    }
 
-        if (blanks.size() != 5) {
-            throw new IllegalArgumentException("Solve is allowed only when exactly 5 cells are empty.");
+    public SudokuSolver(SolverStrategy strategy, SolutionCache cache) {
+        this.strategy = strategy;
+        this.cache = cache;
+    }
+
+    public static SolverStrategy strategyFor(String name, BoardVerifier verifier) {
+        switch (name.trim().toLowerCase()) {
+            case "bitmask": return new BitmaskSolver();
+            case "dlx": return new DancingLinksSolver();
+            case "bruteforce": return new BruteForceSolver(verifier);
+            default:
+                throw new IllegalArgumentException("Unknown solver strategy: " + name
+                        + ". Use bitmask, dlx or bruteforce.");
         }
+    }
 
-        BoardFlyweight fly = new BoardFlyweight(board);
-        AssignmentIterator it = new AssignmentIterator(blanks.size());
+    public SolverStrategy getStrategy() {
+        return strategy;
+    }
 
-        while (it.hasNext()) {
-            int[] candidate = it.next();
+    public SolutionCache getCache() {
+        return cache;
+    }
 
-            fly.apply(blanks, candidate);
+    // Solves a board with any number of blanks; returns a solved copy or null.
+    public Board solve(Board board) {
+        SolveEvent event = new SolveEvent();
+        if (!event.isEnabled()) return strategy.solve(board);
 
-            VerificationResult res = verifier.verify(fly.getWorking());
-            if (res.getStatus() == VerificationStatus.VALID) {
-                return new Board(fly.getWorking()); // return a copy of the solved board
-            }
+        event.begin();
+        SearchStats stats = new SearchStats();
+        Board solved = strategy.solve(board, stats);
+        commit(event, board, solved, stats, false);
+        return solved;
+    }
 
-            fly.clear(blanks);
+    /**
+     * Like {@link #solve(Board)}, but answers from the cache when the puzzle
+     * started from {@code givens} has already been solved and the solution
+     * fits {@code board}. If {@code givens} is null or not part of the board
+     * (a board from some other puzzle), the board itself is the key.
+     */
+    public Board solve(Board givens, Board board) {
+        SolveEvent event = new SolveEvent();
+        boolean recording = event.isEnabled();
+        if (recording) event.begin();
+        Board key = givens != null && SolutionCache.agrees(board, givens) ? givens : board;
+        Board solved = cache.lookup(key, board);
+        if (solved != null) {
+            commit(event, board, solved, null, true);
+            return solved;
+        }
+
+        SearchStats stats = recording ? new SearchStats() : null;
+        solved = strategy.solve(board, stats);
+        if (solved != null) cache.put(key, solved);
+        commit(event, board, solved, stats, false);
+        return solved;
+    }
+
+    // Fills in and records the JFR event; the field work is skipped when no recording wants it.
+    private void commit(SolveEvent event, Board board, Board solved, SearchStats stats, boolean cached) {
+        event.end();
+        if (!event.shouldCommit()) return;
+        event.strategy = strategy.name();
+        event.blanks = board.countZeros();
+        event.nodes = stats == null ? 0 : stats.getNodes();
+        event.cached = cached;
+        event.solved = solved != null;
+        event.commit();
+    }
+
+    public Board solveIfExactlyFiveBlanks(Board board) {
+        return solveIfExactlyFiveBlanks(null, board);
+    }
+
+    public Board solveIfExactlyFiveBlanks(Board givens, Board board) {
+        List<BlankCell> blanks = BlankFinder.findBlanks(board);
+
+        if (blanks.size() != 5) {
+            throw new IllegalArgumentException("Solve is allowed only when exactly 5 cells are empty.");
         }
 
-        return null; // no solution found within brute-force search
+        return solve(givens, board); // null if the givens admit no solution
     }
 }
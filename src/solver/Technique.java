@@ -0,0 +1,13 @@
+package solver;
+
+/**
+ * Human solving techniques understood by {@link TechniqueGrader}, from easiest to hardest.
+ */
+public enum Technique {
+    NAKED_SINGLE,
+    HIDDEN_SINGLE,
+    NAKED_PAIR,
+    HIDDEN_PAIR,
+    POINTING,
+    X_WING
+}
@@ -0,0 +1,218 @@
+package solver;
+
+import model.Board;
+
+import java.util.EnumSet;
+
+/**
+ * Grades a puzzle by solving it the way a person would: candidates are kept
+ * per cell and the easiest technique that makes progress is always applied
+ * first. The techniques that were needed decide the difficulty
+ * (see {@link GradeResult#difficulty()}).
+ */
+public class TechniqueGrader {
+
+    private static final int ALL = 0x1FF;
+
+    public GradeResult grade(Board board) {
+        Grid g = Grid.of(board);
+        EnumSet<Technique> used = EnumSet.noneOf(Technique.class);
+        if (g == null) return new GradeResult(used, false);
+
+        while (g.remaining > 0 && !g.broken) {
+            if (g.nakedSingle()) used.add(Technique.NAKED_SINGLE);
+            else if (g.hiddenSingle()) used.add(Technique.HIDDEN_SINGLE);
+            else if (g.nakedPair()) used.add(Technique.NAKED_PAIR);
+            else if (g.hiddenPair()) used.add(Technique.HIDDEN_PAIR);
+            else if (g.pointing()) used.add(Technique.POINTING);
+            else if (g.xWing()) used.add(Technique.X_WING);
+            else break; // stuck: needs something stronger than we know
+        }
+        return new GradeResult(used, g.remaining == 0 && !g.broken);
+    }
+
+    // Candidate grid for one grading run.
+    private static final class Grid {
+        private final int[] vals = new int[81];
+        private final int[] cand = new int[81]; // 0 once the cell is filled
+        private int remaining = 81;
+        private boolean broken;                 // some empty cell lost all candidates
+
+        static Grid of(Board board) {
+            Grid g = new Grid();
+            for (int i = 0; i < 81; i++) g.cand[i] = ALL;
+            for (int i = 0; i < 81; i++) {
+                int v = board.get(i / 9, i % 9);
+                if (v == 0) continue;
+                if ((g.cand[i] & (1 << (v - 1))) == 0) return null; // conflicting givens
+                g.place(i, v);
+            }
+            return g;
+        }
+
+        private void place(int cell, int digit) {
+            int bit = 1 << (digit - 1);
+            vals[cell] = digit;
+            cand[cell] = 0;
+            remaining--;
+            for (int p : Units.PEERS[cell]) {
+                if (vals[p] == 0 && (cand[p] &= ~bit) == 0) broken = true;
+            }
+        }
+
+        // Removes `mask` from a cell's candidates; returns true if anything changed.
+        private boolean eliminate(int cell, int mask) {
+            if (vals[cell] != 0 || (cand[cell] & mask) == 0) return false;
+            cand[cell] &= ~mask;
+            if (cand[cell] == 0) broken = true;
+            return true;
+        }
+
+        boolean nakedSingle() {
+            for (int i = 0; i < 81; i++) {
+                if (vals[i] == 0 && Integer.bitCount(cand[i]) == 1) {
+                    place(i, Integer.numberOfTrailingZeros(cand[i]) + 1);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean hiddenSingle() {
+            for (int[] unit : Units.CELLS) {
+                int once = 0;
+                int twice = 0;
+                for (int i : unit) {
+                    twice |= once & cand[i];
+                    once |= cand[i];
+                }
+                int hidden = once & ~twice;
+                if (hidden == 0) continue;
+                int bit = hidden & -hidden;
+                for (int i : unit) {
+                    if ((cand[i] & bit) != 0) {
+                        place(i, Integer.numberOfTrailingZeros(bit) + 1);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        boolean nakedPair() {
+            for (int[] unit : Units.CELLS) {
+                for (int a = 0; a < 9; a++) {
+                    int pair = cand[unit[a]];
+                    if (Integer.bitCount(pair) != 2) continue;
+                    for (int b = a + 1; b < 9; b++) {
+                        if (cand[unit[b]] != pair) continue;
+                        boolean changed = false;
+                        for (int k = 0; k < 9; k++) {
+                            if (k != a && k != b) changed |= eliminate(unit[k], pair);
+                        }
+                        if (changed) return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        boolean hiddenPair() {
+            int[] where = new int[9]; // digit -> bitmask of unit positions holding it
+            for (int[] unit : Units.CELLS) {
+                for (int d = 0; d < 9; d++) {
+                    where[d] = 0;
+                    for (int k = 0; k < 9; k++) {
+                        if ((cand[unit[k]] & (1 << d)) != 0) where[d] |= 1 << k;
+                    }
+                }
+                for (int d1 = 0; d1 < 9; d1++) {
+                    if (Integer.bitCount(where[d1]) != 2) continue;
+                    for (int d2 = d1 + 1; d2 < 9; d2++) {
+                        if (where[d2] != where[d1]) continue;
+                        int keep = (1 << d1) | (1 << d2);
+                        boolean changed = false;
+                        for (int k = 0; k < 9; k++) {
+                            if ((where[d1] & (1 << k)) != 0) changed |= eliminate(unit[k], ~keep & ALL);
+                        }
+                        if (changed) return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        // A digit confined to one row (or column) inside a box cannot appear in the rest of that line.
+        boolean pointing() {
+            for (int box = 0; box < 9; box++) {
+                int[] cells = Units.CELLS[18 + box];
+                for (int d = 0; d < 9; d++) {
+                    int bit = 1 << d;
+                    int rowsSeen = 0;
+                    int colsSeen = 0;
+                    for (int i : cells) {
+                        if ((cand[i] & bit) != 0) {
+                            rowsSeen |= 1 << (i / 9);
+                            colsSeen |= 1 << (i % 9);
+                        }
+                    }
+                    if (rowsSeen == 0) continue;
+                    boolean changed = false;
+                    if (Integer.bitCount(rowsSeen) == 1) {
+                        int row = Integer.numberOfTrailingZeros(rowsSeen);
+                        for (int i : Units.CELLS[row]) {
+                            if (boxOf(i) != box) changed |= eliminate(i, bit);
+                        }
+                    }
+                    if (Integer.bitCount(colsSeen) == 1) {
+                        int col = Integer.numberOfTrailingZeros(colsSeen);
+                        for (int i : Units.CELLS[9 + col]) {
+                            if (boxOf(i) != box) changed |= eliminate(i, bit);
+                        }
+                    }
+                    if (changed) return true;
+                }
+            }
+            return false;
+        }
+
+        boolean xWing() {
+            for (int d = 0; d < 9; d++) {
+                if (xWing(d, 0, 9) || xWing(d, 9, 0)) return true;
+            }
+            return false;
+        }
+
+        // Base lines are units [base, base + 9); cover lines are units [cover, cover + 9).
+        private boolean xWing(int d, int base, int cover) {
+            int bit = 1 << d;
+            int[] spots = new int[9];
+            for (int line = 0; line < 9; line++) {
+                int[] cells = Units.CELLS[base + line];
+                for (int k = 0; k < 9; k++) {
+                    if ((cand[cells[k]] & bit) != 0) spots[line] |= 1 << k;
+                }
+            }
+            for (int l1 = 0; l1 < 9; l1++) {
+                if (Integer.bitCount(spots[l1]) != 2) continue;
+                for (int l2 = l1 + 1; l2 < 9; l2++) {
+                    if (spots[l2] != spots[l1]) continue;
+                    boolean changed = false;
+                    for (int k = 0; k < 9; k++) {
+                        if ((spots[l1] & (1 << k)) == 0) continue;
+                        int[] coverCells = Units.CELLS[cover + k];
+                        for (int j = 0; j < 9; j++) {
+                            if (j != l1 && j != l2) changed |= eliminate(coverCells[j], bit);
+                        }
+                    }
+                    if (changed) return true;
+                }
+            }
+            return false;
+        }
+
+        private static int boxOf(int cell) {
+            return (cell / 27) * 3 + (cell % 9) / 3;
+        }
+    }
+}
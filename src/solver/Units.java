@@ -0,0 +1,34 @@
+package solver;
+
+// Cell indexes (row * 9 + col) of the 27 units and of each cell's 20 peers.
+final class Units {
+
+    // Rows 0..8, columns 9..17, boxes 18..26.
+    static final int[][] CELLS = new int[27][9];
+    static final int[][] PEERS = new int[81][20];
+
+    static {
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                CELLS[i][j] = i * 9 + j;
+                CELLS[9 + i][j] = j * 9 + i;
+                CELLS[18 + i][j] = ((i / 3) * 3 + j / 3) * 9 + (i % 3) * 3 + j % 3;
+            }
+        }
+        for (int cell = 0; cell < 81; cell++) {
+            int r = cell / 9;
+            int c = cell % 9;
+            int n = 0;
+            for (int other = 0; other < 81; other++) {
+                int orow = other / 9;
+                int ocol = other % 9;
+                boolean sameBox = orow / 3 == r / 3 && ocol / 3 == c / 3;
+                if (other != cell && (orow == r || ocol == c || sameBox)) {
+                    PEERS[cell][n++] = other;
+                }
+            }
+        }
+    }
+
+    private Units() {}
+}
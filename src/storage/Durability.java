@@ -0,0 +1,27 @@
+package storage;
+
+/**
+ * How hard a board write tries to reach stable storage before it returns.
+ * Every level writes to a temp file and renames it over the target, so a
+ * crash never leaves a half-written board; the levels differ only in fsync.
+ */
+public enum Durability {
+    // Rename only; the OS decides when the data hits the disk.
+    NONE,
+    // fsync the file contents before the rename.
+    DATA,
+    // fsync contents and metadata, then the directory so the rename itself survives power loss.
+    FULL;
+
+    // System property read by GameStorage(Path): "none", "data" (default) or "full".
+    public static final String PROPERTY = "sudoku.storage.durability";
+
+    public static Durability fromConfiguration() {
+        String value = System.getProperty(PROPERTY, "data").trim().toUpperCase();
+        try {
+            return valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown durability level: " + value + ". Use none, data or full.");
+        }
+    }
+}
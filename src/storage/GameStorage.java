@@ -1,33 +1,99 @@
 package storage;
 
+import metrics.LatencyHistogram;
+import metrics.Metrics;
+import metrics.PersistEvent;
 import model.Board;
 import model.Difficulty;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class GameStorage {
 
+    private static final LatencyHistogram LOAD_BOARD = Metrics.histogram("storage.loadBoard");
+    private static final LatencyHistogram SAVE_CURRENT = Metrics.histogram("storage.saveCurrentBoard");
+    private static final LatencyHistogram FLUSH = Metrics.histogram("storage.flushPendingWrites");
+    private static final LongAdder ASYNC_SAVES = Metrics.counter("storage.asyncSaves");
+    private static final LongAdder COALESCED_SAVES = Metrics.counter("storage.asyncSaves.coalesced");
+    // Every board file write, per durability level (indexed by ordinal).
+    private static final LatencyHistogram[] WRITES = new LatencyHistogram[Durability.values().length];
+
+    static {
+        for (Durability d : Durability.values()) {
+            WRITES[d.ordinal()] = Metrics.histogram("storage.write." + d.name().toLowerCase());
+        }
+    }
+
     private final Path baseDir;
+    private final Durability durability;
 
     public static final String INCOMPLETE_FOLDER = "incomplete";
     public static final String CURRENT_BOARD_FILE = "current.csv";
     public static final String CURRENT_LOG_FILE = "current.log";
+    public static final String PACK_EXTENSION = ".pack";
+    // Suffix of the file a board is written to before it is renamed into place.
+    static final String TEMP_SUFFIX = ".tmp";
+
+    // Per-difficulty game index, built lazily; also the lock for it.
+    private final Map<Difficulty, GameIndex> gameIndex = new EnumMap<>(Difficulty.class);
+
+    // -------------------- WRITE-BEHIND STATE --------------------
+    // Board snapshot waiting to be written to current.csv, tagged with its save sequence.
+    private static final class PendingBoard {
+        final Board board;
+        final long seq;
+
+        PendingBoard(Board board, long seq) {
+            this.board = board;
+            this.seq = seq;
+        }
+    }
+
+    private final AtomicLong saveSeq = new AtomicLong();
+    private final AtomicReference<PendingBoard> pendingBoard = new AtomicReference<>();
+    private final Object currentBoardLock = new Object();
+    private long writtenSeq;                 // guarded by currentBoardLock
+    private volatile IOException asyncError; // reported by the next flush
+    private boolean staleTempsRemoved;       // guarded by currentBoardLock
+    private ExecutorService writeBehind;     // created on first async save
+    private final AtomicLong currentGameDeletions = new AtomicLong();
 
     public GameStorage(Path baseDir) {
+        this(baseDir, Durability.fromConfiguration());
+    }
+
+    public GameStorage(Path baseDir, Durability durability) {
         this.baseDir = baseDir;
+        this.durability = durability;
     }
 
     public Path getBaseDir() {
         return baseDir;
     }
 
+    public Durability getDurability() {
+        return durability;
+    }
+
+
     // -------------------- FOLDERS --------------------
     public void ensureFolderStructure() throws IOException {
         Files.createDirectories(baseDir);
@@ -37,6 +103,28 @@ public class GameStorage {
         }
 
         Files.createDirectories(baseDir.resolve(INCOMPLETE_FOLDER));
+        removeStaleTempFiles();
+    }
+
+    /*
+     * A crash between writing current.csv.tmp and renaming it leaves the temp
+     * file behind. The first folder check of this storage deletes such files;
+     * holding currentBoardLock keeps it from racing a write of our own.
+     */
+    private void removeStaleTempFiles() throws IOException {
+        synchronized (currentBoardLock) {
+            if (staleTempsRemoved) return;
+            try (Stream<Path> stream = Files.list(incompleteDir())) {
+                for (Path p : stream.filter(GameStorage::isTempFile).collect(Collectors.toList())) {
+                    Files.deleteIfExists(p);
+                }
+            }
+            staleTempsRemoved = true;
+        }
+    }
+
+    private static boolean isTempFile(Path p) {
+        return p.getFileName().toString().endsWith(TEMP_SUFFIX);
     }
 
     public Path difficultyDir(Difficulty d) {
@@ -55,22 +143,121 @@ public class GameStorage {
         return incompleteDir().resolve(CURRENT_LOG_FILE);
     }
 
+    // games/<difficulty>.pack, next to the folder of single-game CSV files.
+    public Path packPath(Difficulty d) {
+        return baseDir.resolve(d.folder() + PACK_EXTENSION);
+    }
+
+    // -------------------- GAME INDEX --------------------
+    // Games available for one difficulty: CSV file names, kept sorted, and the mapped pack, if any.
+    private static final class GameIndex {
+        final List<String> names = new ArrayList<>();
+        PuzzlePack pack;
+
+        // Binary search plus an array shift; listing then never has to sort.
+        void add(String name) {
+            int i = Collections.binarySearch(names, name);
+            if (i < 0) names.add(-i - 1, name);
+        }
+
+        void remove(String name) {
+            int i = Collections.binarySearch(names, name);
+            if (i >= 0) names.remove(i);
+        }
+
+        int packed() {
+            return pack == null ? 0 : pack.size();
+        }
+    }
+
+    /**
+     * Each difficulty's index is built from disk on first use and afterwards kept
+     * current by saveGame and deleteGameFile, so catalogue queries and random
+     * picks touch no files. Files added or removed by anything else (another
+     * process, a manual copy) are seen after {@link #invalidateGameIndex()}.
+     */
+    private GameIndex index(Difficulty d) throws IOException {
+        GameIndex idx = gameIndex.get(d);
+        if (idx != null) return idx;
+
+        idx = new GameIndex();
+        Path dir = difficultyDir(d);
+        if (Files.isDirectory(dir)) {
+            try (Stream<Path> stream = Files.list(dir)) {
+                stream.filter(Files::isRegularFile)
+                        .map(p -> p.getFileName().toString())
+                        .filter(GameStorage::isGameFileName)
+                        .sorted()
+                        .forEach(idx.names::add);
+            }
+        }
+        if (Files.isRegularFile(packPath(d))) {
+            idx.pack = PuzzlePack.open(packPath(d));
+        }
+        gameIndex.put(d, idx);
+        return idx;
+    }
+
+    private static boolean isGameFileName(String name) {
+        return name.toLowerCase().endsWith(".csv");
+    }
+
+    /**
+     * Drops the cached index and closes every pack; the next query rescans the
+     * folders. Call it after games or packs were changed outside this object,
+     * and before replacing or deleting a pack file. Closing does not unmap a
+     * pack (see {@link PuzzlePack}), so on Windows that replace or delete can
+     * still fail until the old mapping has been garbage collected.
+     */
+    public void invalidateGameIndex() throws IOException {
+        synchronized (gameIndex) {
+            for (GameIndex idx : gameIndex.values()) {
+                if (idx.pack != null) idx.pack.close();
+            }
+            gameIndex.clear();
+        }
+    }
+
+    /**
+     * Every game in the difficulty's pack, in pack order (empty if there is no
+     * pack). The boards are read under the index lock, so the pack cannot be
+     * closed by {@link #invalidateGameIndex()} halfway through.
+     */
+    public List<Board> loadPackedGames(Difficulty d) throws IOException {
+        synchronized (gameIndex) {
+            PuzzlePack pack = index(d).pack;
+            List<Board> boards = new ArrayList<>();
+            if (pack == null) return boards;
+            for (int i = 0; i < pack.size(); i++) {
+                boards.add(pack.get(i));
+            }
+            return boards;
+        }
+    }
+
+    public int packedGameCount(Difficulty d) throws IOException {
+        synchronized (gameIndex) {
+            return index(d).packed();
+        }
+    }
+
     // -------------------- LIST / EXISTENCE --------------------
+    // The CSV games of a difficulty, sorted by file name.
     public List<Path> listGames(Difficulty d) throws IOException {
         Path dir = difficultyDir(d);
-        if (!Files.exists(dir)) return List.of();
-
-        try (Stream<Path> stream = Files.list(dir)) {
-            return stream
-                    .filter(Files::isRegularFile)
-                    .filter(p -> p.getFileName().toString().toLowerCase().endsWith(".csv"))
-                    .sorted()
-                    .collect(Collectors.toList());
+        synchronized (gameIndex) {
+            List<String> names = index(d).names;
+            List<Path> games = new ArrayList<>(names.size());
+            for (String name : names) games.add(dir.resolve(name));
+            return games;
         }
     }
 
     public boolean hasAnyGame(Difficulty d) throws IOException {
-        return !listGames(d).isEmpty();
+        synchronized (gameIndex) {
+            GameIndex idx = index(d);
+            return idx.packed() > 0 || !idx.names.isEmpty();
+        }
     }
 
     // FIXED: Added missing method
@@ -83,25 +270,148 @@ public class GameStorage {
 
     // -------------------- PICK A GAME --------------------
     public Path pickRandomGameFile(Difficulty d) throws IOException {
-        List<Path> games = listGames(d);
-        if (games.isEmpty()) {
-            throw new FileNotFoundException("No games found in: " + difficultyDir(d));
+        synchronized (gameIndex) {
+            List<String> names = index(d).names;
+            if (names.isEmpty()) {
+                throw new FileNotFoundException("No games found in: " + difficultyDir(d));
+            }
+            return difficultyDir(d).resolve(names.get(ThreadLocalRandom.current().nextInt(names.size())));
+        }
+    }
+
+    // A random game of the difficulty, chosen uniformly over the pack and the CSV files.
+    public Board loadRandomGame(Difficulty d) throws IOException {
+        Path picked;
+        synchronized (gameIndex) {
+            GameIndex idx = index(d);
+            int packed = idx.packed();
+            int total = packed + idx.names.size();
+            if (total == 0) {
+                throw new FileNotFoundException("No games found in: " + difficultyDir(d));
+            }
+            int pick = ThreadLocalRandom.current().nextInt(total);
+            if (pick < packed) return idx.pack.get(pick);
+            picked = difficultyDir(d).resolve(idx.names.get(pick - packed));
         }
-        return games.get(new Random().nextInt(games.size()));
+        return loadBoard(picked);
     }
 
     // -------------------- LOAD --------------------
     public Board loadBoard(Path csvPath) throws FileNotFoundException {
-        return Board.fromCSV(csvPath.toString());
+        long t = Metrics.start();
+        PersistEvent event = new PersistEvent();
+        if (event.isEnabled()) event.begin();
+        Board board = Board.fromCSV(csvPath.toString());
+        event.end();
+        LOAD_BOARD.recordSince(t);
+        if (event.shouldCommit()) {
+            event.operation = PersistEvent.READ_BOARD;
+            event.path = csvPath.toString();
+            event.bytes = csvPath.toFile().length();
+            event.commit();
+        }
+        return board;
     }
 
     // -------------------- SAVE CURRENT --------------------
     public void saveCurrentBoard(Board board) throws IOException {
-        Path out = currentBoardPath();
-        writeBoardCsv(board, out);
+        long t = Metrics.start();
+        long seq = saveSeq.incrementAndGet();
+        synchronized (currentBoardLock) {
+            writeBoardCsv(board, currentBoardPath(), durability);
+            writtenSeq = seq; // any older pending snapshot is now stale
+        }
+        SAVE_CURRENT.recordSince(t); // includes waiting for a background write to finish
+    }
+
+    /**
+     * Queues a snapshot of the board for a background write of current.csv.
+     * Snapshots that arrive while a write is in progress are coalesced, so
+     * only the newest one is written. The caller never waits for the disk;
+     * the move log (written synchronously) covers a crash in between.
+     */
+    public void saveCurrentBoardAsync(Board board) {
+        PendingBoard p = new PendingBoard(new Board(board), saveSeq.incrementAndGet());
+        Metrics.increment(ASYNC_SAVES);
+        if (pendingBoard.getAndSet(p) == null) {
+            writer().execute(this::writePendingBoard);
+        } else {
+            Metrics.increment(COALESCED_SAVES); // replaced a snapshot that was never written
+        }
+    }
+
+    // Writes the pending snapshot now (if any) and waits for an in-flight write to finish.
+    public void flushPendingWrites() throws IOException {
+        long t = Metrics.start();
+        PendingBoard p = pendingBoard.getAndSet(null);
+        if (p != null) {
+            writeIfNewer(p);
+        } else {
+            synchronized (currentBoardLock) {
+                // nothing queued; the worker may have dequeued a snapshot and be writing it
+            }
+        }
+        FLUSH.recordSince(t);
+
+        IOException e = asyncError;
+        if (e != null) {
+            asyncError = null;
+            throw e;
+        }
+    }
+
+    // Drops queued snapshots; used before the current game's files are removed.
+    public void discardPendingWrites() {
+        pendingBoard.set(null);
+        synchronized (currentBoardLock) {
+            writtenSeq = saveSeq.get();
+        }
+    }
+
+    // The snapshot is taken off the queue under the lock, so a flush that finds
+    // nothing queued either waits for this write or runs after it (error included).
+    private void writePendingBoard() {
+        synchronized (currentBoardLock) {
+            PendingBoard p = pendingBoard.getAndSet(null);
+            if (p == null) return;
+            try {
+                writeIfNewer(p);
+            } catch (IOException e) {
+                asyncError = e;
+                System.err.println("Background save of current board failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void writeIfNewer(PendingBoard p) throws IOException {
+        synchronized (currentBoardLock) {
+            if (p.seq <= writtenSeq) return;
+            writeBoardCsv(p.board, currentBoardPath(), durability);
+            writtenSeq = p.seq;
+        }
+    }
+
+    private synchronized ExecutorService writer() {
+        if (writeBehind == null) {
+            writeBehind = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "board-write-behind");
+                t.setDaemon(true);
+                return t;
+            });
+            // System.exit from any window still gets the last board onto disk
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    flushPendingWrites();
+                } catch (IOException e) {
+                    System.err.println("Final save of current board failed: " + e.getMessage());
+                }
+            }, "board-write-behind-flush"));
+        }
+        return writeBehind;
     }
 
     public void clearIncompleteFolder() throws IOException {
+        discardPendingWrites();
         Path dir = incompleteDir();
         if (!Files.exists(dir)) return;
 
@@ -110,20 +420,31 @@ public class GameStorage {
                 Files.deleteIfExists(p);
             }
         }
+        currentGameDeletions.incrementAndGet();
+    }
+
+    /**
+     * Counts the times current.csv and current.log were deleted (clearing the
+     * incomplete folder, deleting the current game). A holder of an open move
+     * journal compares it with the value it last saw to know that the log
+     * under the journal is gone and the journal has to be reopened.
+     */
+    public long currentGameDeletions() {
+        return currentGameDeletions.get();
     }
 
     public boolean hasUnfinishedGame() {
         return Files.exists(currentBoardPath());
     }
 
-    // Optional: enforce rule "incomplete folder is empty OR exactly 2 files"
+    // Optional: enforce rule "incomplete folder is empty OR exactly 2 files" (temp files of a write don't count)
     public boolean incompleteFolderLooksValid() throws IOException {
         Path dir = incompleteDir();
         if (!Files.exists(dir)) return true;
 
         List<Path> files;
         try (Stream<Path> stream = Files.list(dir)) {
-            files = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+            files = stream.filter(Files::isRegularFile).filter(p -> !isTempFile(p)).collect(Collectors.toList());
         }
 
         if (files.isEmpty()) return true;
@@ -137,24 +458,51 @@ public class GameStorage {
     // -------------------- DELETE GAME --------------------
     public void deleteGameFile(Path csvPath) throws IOException {
         Files.deleteIfExists(csvPath);
+        Difficulty d = difficultyOf(csvPath);
+        if (d != null) {
+            synchronized (gameIndex) {
+                GameIndex idx = gameIndex.get(d);
+                if (idx != null) idx.remove(csvPath.getFileName().toString());
+            }
+        }
+    }
+
+    // The difficulty whose folder holds `file`, or null for files elsewhere.
+    private Difficulty difficultyOf(Path file) {
+        Path parent = file.toAbsolutePath().normalize().getParent();
+        for (Difficulty d : Difficulty.values()) {
+            if (difficultyDir(d).toAbsolutePath().normalize().equals(parent)) return d;
+        }
+        return null;
     }
 
     // FIXED: Added missing method
     public void deleteCurrentGame() throws IOException {
+        discardPendingWrites();
         Files.deleteIfExists(currentBoardPath());
         Files.deleteIfExists(currentLogPath());
+        currentGameDeletions.incrementAndGet();
     }
 
     // -------------------- SAVE GAME --------------------
     public Path saveGame(Board board, Difficulty difficulty, String fileName) throws IOException {
         if (!fileName.toLowerCase().endsWith(".csv")) fileName += ".csv";
         Path out = difficultyDir(difficulty).resolve(fileName);
-        writeBoardCsv(board, out);
+        // Catalogue games can be regenerated, so bulk generation skips the fsync.
+        writeBoardCsv(board, out, Durability.NONE);
+        synchronized (gameIndex) {
+            GameIndex idx = gameIndex.get(difficulty);
+            if (idx != null) idx.add(fileName); // an unbuilt index picks the file up when it is built
+        }
         return out;
     }
 
-    // -------------------- CSV WRITER (NO BUFFER) --------------------
-    private void writeBoardCsv(Board board, Path out) throws IOException {
+    // -------------------- CSV WRITER (ATOMIC) --------------------
+    // Writes to a sibling temp file, fsyncs per `level`, then renames it over `out`.
+    private void writeBoardCsv(Board board, Path out, Durability level) throws IOException {
+        long start = Metrics.start();
+        PersistEvent event = new PersistEvent();
+        if (event.isEnabled()) event.begin();
         Files.createDirectories(out.getParent());
 
         StringBuilder sb = new StringBuilder();
@@ -166,12 +514,40 @@ public class GameStorage {
             sb.append('\n');
         }
 
-        Files.writeString(
-                out,
-                sb.toString(),
-                StandardCharsets.UTF_8,
-                StandardOpenOption.CREATE,
-                StandardOpenOption.TRUNCATE_EXISTING
-        );
+        Path tmp = out.resolveSibling(out.getFileName() + TEMP_SUFFIX);
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+            event.bytes = buf.remaining();
+            while (buf.hasRemaining()) ch.write(buf);
+            if (level != Durability.NONE) ch.force(level == Durability.FULL);
+        }
+
+        try {
+            Files.move(tmp, out, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        if (level == Durability.FULL) {
+            syncDirectory(out.getParent());
+        }
+        WRITES[level.ordinal()].recordSince(start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = PersistEvent.WRITE_BOARD;
+            event.path = out.toString();
+            event.durability = level.name();
+            event.commit();
+        }
+    }
+
+    // Persists the directory entry created by the rename. Not supported on Windows, where it is skipped.
+    private void syncDirectory(Path dir) {
+        try (FileChannel ch = FileChannel.open(dir, StandardOpenOption.READ)) {
+            ch.force(true);
+        } catch (IOException e) {
+            // directories cannot be opened for sync on this platform
+        }
     }
-}
\ No newline at end of file
+}
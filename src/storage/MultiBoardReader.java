@@ -0,0 +1,206 @@
+package storage;
+
+import model.Board;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streams boards out of the multi-board CSV exports (sudoku_boards_*.csv):
+ * optional label lines such as "EASY PUZZLE (41 clues)", each followed by nine
+ * rows of nine comma-separated digits, with blank lines in between. A plain
+ * single-board CSV is the same thing without a label.
+ *
+ * The file is scanned byte by byte through one reused buffer: no lines,
+ * strings or split arrays are created, so memory stays constant however large
+ * the input is. Each board is handed to the sink in the same reused Board
+ * instance; a sink that keeps it must copy it.
+ *
+ * A malformed board (a row without nine single digits, or fewer than nine rows
+ * before the next label or blank line) is skipped and counted, and reading
+ * carries on with the next section.
+ * Not thread-safe; use one reader per thread.
+ */
+public class MultiBoardReader {
+
+    /** The kind of board a section label announces. */
+    public enum Section { SOLVED, EASY, MEDIUM, HARD, UNLABELLED }
+
+    public interface BoardSink {
+        void accept(Board board, Section section) throws IOException;
+    }
+
+    private static final int LABEL_BYTES = 64; // enough of a label to classify it
+
+    private final byte[] buffer;
+    private final byte[] label = new byte[LABEL_BYTES];
+    private final Board board = new Board();
+
+    private long malformed;
+
+    // per-file parse state
+    private Section section;
+    private int rows;          // complete rows of the current board
+    private int col;           // cells of the current row stored so far
+    private int value;         // digit of the current cell, -1 before it is seen
+    private boolean rowBad;
+    private boolean skipping;  // rest of a malformed board; ends at the next label or blank line
+    private int labelLength;
+    private int lineKind;      // LINE_START, ROW or LABEL
+
+    private static final int LINE_START = 0;
+    private static final int ROW = 1;
+    private static final int LABEL = 2;
+
+    public MultiBoardReader() {
+        this(1 << 16);
+    }
+
+    public MultiBoardReader(int bufferSize) {
+        this.buffer = new byte[bufferSize];
+    }
+
+    // Boards skipped as malformed since this reader was created.
+    public long getMalformedCount() {
+        return malformed;
+    }
+
+    /** Reads every board in {@code file}; returns how many were passed to the sink. */
+    public long read(Path file, BoardSink sink) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(in, sink);
+        }
+    }
+
+    public long read(InputStream in, BoardSink sink) throws IOException {
+        section = Section.UNLABELLED;
+        rows = 0;
+        skipping = false;
+        lineKind = LINE_START;
+        long boards = 0;
+
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            for (int i = 0; i < n; i++) {
+                byte b = buffer[i];
+                if (b == '\n') {
+                    if (endLine() && emit(sink)) boards++;
+                } else {
+                    consume(b);
+                }
+            }
+        }
+        if (lineKind != LINE_START && endLine() && emit(sink)) boards++; // no newline at end of file
+        if (rows > 0) dropBoard();
+        return boards;
+    }
+
+    private void consume(byte b) {
+        switch (lineKind) {
+            case LINE_START:
+                if (b == ' ' || b == '\t' || b == '\r') return;
+                if (b >= '0' && b <= '9') {
+                    lineKind = ROW;
+                    col = 0;
+                    value = -1;
+                    rowBad = false;
+                    consumeRow(b);
+                } else {
+                    lineKind = LABEL;
+                    labelLength = 0;
+                    consumeLabel(b);
+                }
+                return;
+            case ROW:
+                consumeRow(b);
+                return;
+            default:
+                consumeLabel(b);
+        }
+    }
+
+    private void consumeRow(byte b) {
+        if (rowBad) return;
+        if (b >= '0' && b <= '9') {
+            if (value >= 0) rowBad = true; // two digits: out of range
+            else value = b - '0';
+        } else if (b == ',') {
+            storeCell();
+        } else if (b != ' ' && b != '\t' && b != '\r') {
+            rowBad = true;
+        }
+    }
+
+    private void storeCell() {
+        if (value < 0 || col == 9) {
+            rowBad = true;
+            return;
+        }
+        board.set(rows, col++, value);
+        value = -1;
+    }
+
+    private void consumeLabel(byte b) {
+        if (labelLength < LABEL_BYTES) {
+            label[labelLength++] = (byte) Character.toUpperCase(b);
+        }
+    }
+
+    // Finishes the current line; returns true when it completed a board.
+    private boolean endLine() {
+        int kind = lineKind;
+        lineKind = LINE_START;
+
+        if (kind == ROW) {
+            if (skipping) return false;
+            storeCell();
+            if (rowBad || col != 9) {
+                dropBoard();
+                return false;
+            }
+            return ++rows == 9;
+        }
+
+        // a label or blank line ends any partial board
+        if (rows > 0) dropBoard();
+        skipping = false;
+        if (kind == LABEL) section = classify();
+        return false;
+    }
+
+    private boolean emit(BoardSink sink) throws IOException {
+        rows = 0;
+        Section s = section;
+        section = Section.UNLABELLED; // a label covers the one board that follows it
+        sink.accept(board, s);
+        return true;
+    }
+
+    private void dropBoard() {
+        malformed++;
+        rows = 0;
+        skipping = true;
+        section = Section.UNLABELLED;
+    }
+
+    private Section classify() {
+        if (labelContains("SOLVED")) return Section.SOLVED;
+        if (labelContains("EASY")) return Section.EASY;
+        if (labelContains("MEDIUM")) return Section.MEDIUM;
+        if (labelContains("HARD")) return Section.HARD;
+        return Section.UNLABELLED;
+    }
+
+    private boolean labelContains(String word) {
+        outer:
+        for (int i = 0; i + word.length() <= labelLength; i++) {
+            for (int k = 0; k < word.length(); k++) {
+                if (label[i + k] != word.charAt(k)) continue outer;
+            }
+            return true;
+        }
+        return false;
+    }
+}
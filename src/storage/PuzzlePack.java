@@ -0,0 +1,210 @@
+package storage;
+
+import model.Board;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Read-only view of a puzzle pack: many boards of one difficulty in a single file.
+ * Layout: 4-byte magic, 4-byte board count, then one fixed 41-byte record per
+ * board holding its 81 cells as nibbles, two per byte, high nibble first (the
+ * last low nibble is unused). The file is memory-mapped, so reading board i is
+ * one offset computation and picking a random board costs the same for ten
+ * boards or a million.
+ * {@link #close()} closes the channel but cannot release the mapping: Java has
+ * no public unmap, so it lives until the buffer is garbage collected. On
+ * Windows the file cannot be replaced or deleted while it is still mapped.
+ */
+public class PuzzlePack implements AutoCloseable {
+
+    static final int MAGIC = 0x53504B31; // "SPK1"
+    static final int HEADER_BYTES = 8;
+    public static final int RECORD_BYTES = 41;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int count;
+
+    private PuzzlePack(Path path, FileChannel channel, MappedByteBuffer buffer, int count) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.count = count;
+    }
+
+    public static PuzzlePack open(Path path) throws IOException {
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = ch.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Not a puzzle pack (file too short): " + path);
+            }
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buf.getInt(0) != MAGIC) {
+                throw new IOException("Not a puzzle pack: " + path);
+            }
+            int count = buf.getInt(4);
+            if (count < 0 || HEADER_BYTES + (long) count * RECORD_BYTES > size) {
+                throw new IOException("Puzzle pack is truncated: " + path);
+            }
+            return new PuzzlePack(path, ch, buf, count);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public Board get(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Board " + index + " of " + count + " in " + path);
+        }
+        Board board = new Board();
+        int base = HEADER_BYTES + index * RECORD_BYTES;
+        for (int i = 0; i < 81; i++) {
+            int b = buffer.get(base + (i >> 1));
+            int v = (i & 1) == 0 ? (b >> 4) & 0xF : b & 0xF;
+            if (v > 9) {
+                throw new IllegalStateException("Corrupt record " + index + " in " + path);
+            }
+            board.set(i / 9, i % 9, v);
+        }
+        return board;
+    }
+
+    public Board pickRandom(RandomGenerator rng) {
+        if (count == 0) throw new IllegalStateException("Puzzle pack is empty: " + path);
+        return get(rng.nextInt(count));
+    }
+
+    // Closes the channel; the mapping stays valid until it is garbage collected (see the class doc).
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // -------------------- WRITING --------------------
+
+    /** Writes {@code boards} as a pack, via a temp file that is renamed over {@code path}. */
+    public static void write(Path path, List<Board> boards) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + boards.size() * RECORD_BYTES);
+        buf.putInt(MAGIC).putInt(boards.size());
+        byte[] record = new byte[RECORD_BYTES];
+        for (Board board : boards) {
+            encode(board, record);
+            buf.put(record);
+        }
+
+        Path abs = path.toAbsolutePath();
+        Files.createDirectories(abs.getParent());
+        Path tmp = abs.resolveSibling(abs.getFileName() + ".tmp");
+        Files.write(tmp, buf.array());
+        try {
+            Files.move(tmp, abs, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, abs, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Adds boards to the end of a pack (created if missing) through a fixed-size
+     * buffer, so packs of any size are built in constant memory. The header
+     * count is only updated by {@link #close()}; if the process dies earlier the
+     * pack keeps its old count and the partial tail is cut off on the next open.
+     */
+    public static final class Appender implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer out = ByteBuffer.allocate(RECORD_BYTES * 1024);
+        private final byte[] record = new byte[RECORD_BYTES];
+        private int count;
+
+        private Appender(FileChannel channel, int count) {
+            this.channel = channel;
+            this.count = count;
+        }
+
+        public static Appender open(Path path) throws IOException {
+            Path abs = path.toAbsolutePath();
+            Files.createDirectories(abs.getParent());
+            FileChannel ch = FileChannel.open(abs, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                int count = 0;
+                if (ch.size() == 0) {
+                    ch.write(ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(0).flip(), 0);
+                } else {
+                    ByteBuffer head = ByteBuffer.allocate(HEADER_BYTES);
+                    while (head.hasRemaining() && ch.read(head, head.position()) > 0) {
+                        // header is 8 bytes; loop only guards against short reads
+                    }
+                    head.flip();
+                    if (head.remaining() < HEADER_BYTES || head.getInt() != MAGIC) {
+                        throw new IOException("Not a puzzle pack: " + path);
+                    }
+                    count = head.getInt();
+                }
+                long end = HEADER_BYTES + (long) count * RECORD_BYTES;
+                ch.truncate(end);
+                ch.position(end);
+                return new Appender(ch, count);
+            } catch (IOException | RuntimeException e) {
+                ch.close();
+                throw e;
+            }
+        }
+
+        public void add(Board board) throws IOException {
+            if (out.remaining() < RECORD_BYTES) drain();
+            encode(board, record);
+            out.put(record);
+            count++;
+        }
+
+        public int size() {
+            return count;
+        }
+
+        private void drain() throws IOException {
+            out.flip();
+            while (out.hasRemaining()) channel.write(out);
+            out.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+                ByteBuffer c = ByteBuffer.allocate(4).putInt(count).flip();
+                while (c.hasRemaining()) channel.write(c, 4 + c.position());
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    static void encode(Board board, byte[] record) {
+        for (int k = 0; k < RECORD_BYTES; k++) {
+            int hi = board.get((2 * k) / 9, (2 * k) % 9);
+            int lo = 2 * k + 1 < 81 ? board.get((2 * k + 1) / 9, (2 * k + 1) % 9) : 0;
+            record[k] = (byte) ((hi << 4) | lo);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package storage;
+
+import model.Board;
+import model.Difficulty;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Moves catalogue games between the one-CSV-per-game folders and the
+ * per-difficulty puzzle packs read by {@link PuzzlePack}.
+ * "pack" appends every CSV game of a difficulty to its pack and then deletes
+ * the CSV files; "unpack" writes every packed game back out as a CSV and then
+ * deletes the pack. Files are only deleted after the other side is written.
+ * Unpacked games are named pack_NNNNNN.csv, skipping names already taken, so
+ * no existing game is overwritten.
+ *
+ * Usage: java storage.PuzzlePackTool pack|unpack [gamesDir]
+ */
+public class PuzzlePackTool {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2
+                || !(args[0].equals("pack") || args[0].equals("unpack"))) {
+            System.err.println("Usage: java storage.PuzzlePackTool pack|unpack [gamesDir]");
+            System.exit(2);
+        }
+        GameStorage storage = new GameStorage(Paths.get(args.length == 2 ? args[1] : "games"));
+        storage.ensureFolderStructure();
+
+        for (Difficulty d : Difficulty.values()) {
+            if (args[0].equals("pack")) {
+                int n = pack(storage, d);
+                System.out.println(d + ": packed " + n + " games into " + storage.packPath(d));
+            } else {
+                int n = unpack(storage, d);
+                System.out.println(d + ": unpacked " + n + " games into " + storage.difficultyDir(d));
+            }
+        }
+    }
+
+    /** Appends the CSV games of {@code d} to its pack and deletes them. Returns the number moved. */
+    public static int pack(GameStorage storage, Difficulty d) throws IOException {
+        List<Path> files = storage.listGames(d);
+        if (files.isEmpty()) return 0;
+
+        List<Board> boards = storage.loadPackedGames(d);
+        for (Path f : files) {
+            boards.add(storage.loadBoard(f));
+        }
+
+        storage.invalidateGameIndex();
+        PuzzlePack.write(storage.packPath(d), boards);
+        for (Path f : files) {
+            storage.deleteGameFile(f);
+        }
+        return files.size();
+    }
+
+    /** Writes every packed game of {@code d} as a CSV and deletes the pack. Returns the number moved. */
+    public static int unpack(GameStorage storage, Difficulty d) throws IOException {
+        List<Board> boards = storage.loadPackedGames(d);
+        if (boards.isEmpty()) return 0;
+
+        int next = 1;
+        for (Board board : boards) {
+            String name;
+            do {
+                name = "pack_" + String.format("%06d", next++) + ".csv";
+            } while (Files.exists(storage.difficultyDir(d).resolve(name)));
+            storage.saveGame(board, d, name);
+        }
+        storage.invalidateGameIndex();
+        Files.deleteIfExists(storage.packPath(d));
+        return boards.size();
+    }
+}
@@ -5,13 +5,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.random.RandomGenerator;
 
 public class RandomPairs {
     // Range 0..8 for both x and y
     private static final int MAX_COORD = 8;
     private static final int MAX_UNIQUE_PAIRS = (MAX_COORD + 1) * (MAX_COORD + 1);
     
-    private final Random random;
+    private final RandomGenerator random;
 
     public RandomPairs() {
         this.random = new Random(System.currentTimeMillis());
@@ -21,6 +22,11 @@ public class RandomPairs {
         this.random = new Random(seed);
     }
 
+    // Lets callers supply their own stream, e.g. a SplittableRandom per generation task.
+    public RandomPairs(RandomGenerator random) {
+        this.random = random;
+    }
+
     /**
      * Generate n distinct random pairs (x, y) where 0 ≤ x ≤ 8 and 0 ≤ y ≤ 8.
      */
@@ -1,5 +1,6 @@
 package verifier;
 
+import metrics.VerifyEvent;
 import model.Board;
 import model.VerificationResult;
 import model.VerificationStatus;
@@ -9,8 +10,33 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class BoardVerifier {
-    
+
+    /**
+     * Full check with the duplicate report. VALID and INCOMPLETE results are
+     * shared instances whose duplicate list is empty and unmodifiable.
+     */
     public VerificationResult verify(Board board) {
+        VerifyEvent event = new VerifyEvent();
+        if (!event.isEnabled()) return verifyBoard(board);
+
+        event.begin();
+        VerificationResult result = verifyBoard(board);
+        event.end();
+        if (event.shouldCommit()) {
+            event.status = result.getStatus().name();
+            event.duplicates = result.getDuplicates().size();
+            event.commit();
+        }
+        return result;
+    }
+
+    private VerificationResult verifyBoard(Board board) {
+        VerificationStatus status = status(board);
+        if (status != VerificationStatus.INVALID) {
+            return VerificationResult.withoutDuplicates(status);
+        }
+
+        // Only an invalid board pays for the detailed duplicate report.
         List<Duplicate> allDuplicates = new ArrayList<>();
         
         // Check all rows
@@ -30,14 +56,57 @@ public class BoardVerifier {
             }
         }
         
-        // Determine status
-        if (!allDuplicates.isEmpty()) {
-            return new VerificationResult(VerificationStatus.INVALID, allDuplicates);
-        } else if (board.hasZero()) {
-            return new VerificationResult(VerificationStatus.INCOMPLETE, allDuplicates);
-        } else {
-            return new VerificationResult(VerificationStatus.VALID, allDuplicates);
+        return new VerificationResult(VerificationStatus.INVALID, allDuplicates);
+    }
+
+    /**
+     * Decides VALID / INVALID / INCOMPLETE without allocating: each of the 27 units
+     * is scanned with a single 9-bit mask and the scan stops at the first duplicate.
+     */
+    public VerificationStatus status(Board board) {
+        boolean hasZero = false;
+
+        for (int row = 0; row < 9; row++) {
+            int seen = 0;
+            for (int col = 0; col < 9; col++) {
+                int val = board.get(row, col);
+                if (val == 0) {
+                    hasZero = true;
+                    continue;
+                }
+                int bit = 1 << val;
+                if ((seen & bit) != 0) return VerificationStatus.INVALID;
+                seen |= bit;
+            }
+        }
+
+        for (int col = 0; col < 9; col++) {
+            int seen = 0;
+            for (int row = 0; row < 9; row++) {
+                int val = board.get(row, col);
+                if (val == 0) continue;
+                int bit = 1 << val;
+                if ((seen & bit) != 0) return VerificationStatus.INVALID;
+                seen |= bit;
+            }
         }
+
+        for (int box = 0; box < 9; box++) {
+            int top = (box / 3) * 3;
+            int left = (box % 3) * 3;
+            int seen = 0;
+            for (int r = top; r < top + 3; r++) {
+                for (int c = left; c < left + 3; c++) {
+                    int val = board.get(r, c);
+                    if (val == 0) continue;
+                    int bit = 1 << val;
+                    if ((seen & bit) != 0) return VerificationStatus.INVALID;
+                    seen |= bit;
+                }
+            }
+        }
+
+        return hasZero ? VerificationStatus.INCOMPLETE : VerificationStatus.VALID;
     }
     
     private List<Duplicate> checkRow(Board board, int row) {
@@ -0,0 +1,76 @@
+package verifier;
+
+import model.Board;
+import model.VerificationStatus;
+
+import java.util.Arrays;
+
+/**
+ * Keeps per-unit digit counts for one board so its status can be read in O(1).
+ * Every change to the tracked board must be reported through {@link #update};
+ * {@link #reset} re-reads the board from scratch.
+ */
+public class IncrementalVerifier {
+
+    // Units 0..8 are rows, 9..17 columns, 18..26 boxes; counts[unit * 10 + digit].
+    private final int[] counts = new int[27 * 10];
+    private int conflicts; // sum over units and digits of (count - 1) where count > 1
+    private int zeros;
+
+    public void reset(Board board) {
+        Arrays.fill(counts, 0);
+        conflicts = 0;
+        zeros = 0;
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                add(r, c, board.get(r, c));
+            }
+        }
+    }
+
+    public void update(int row, int col, int oldVal, int newVal) {
+        if (oldVal == newVal) return;
+        remove(row, col, oldVal);
+        add(row, col, newVal);
+    }
+
+    public VerificationStatus status() {
+        if (conflicts > 0) return VerificationStatus.INVALID;
+        if (zeros > 0) return VerificationStatus.INCOMPLETE;
+        return VerificationStatus.VALID;
+    }
+
+    public int emptyCount() {
+        return zeros;
+    }
+
+    private void add(int row, int col, int val) {
+        if (val == 0) {
+            zeros++;
+            return;
+        }
+        conflicts += bump(row * 10 + val);
+        conflicts += bump((9 + col) * 10 + val);
+        conflicts += bump((18 + (row / 3) * 3 + col / 3) * 10 + val);
+    }
+
+    private void remove(int row, int col, int val) {
+        if (val == 0) {
+            zeros--;
+            return;
+        }
+        conflicts -= drop(row * 10 + val);
+        conflicts -= drop((9 + col) * 10 + val);
+        conflicts -= drop((18 + (row / 3) * 3 + col / 3) * 10 + val);
+    }
+
+    // Returns 1 when the increment creates (another) duplicate in that unit.
+    private int bump(int slot) {
+        return counts[slot]++ > 0 ? 1 : 0;
+    }
+
+    // Returns 1 when the decrement removes a duplicate from that unit.
+    private int drop(int slot) {
+        return --counts[slot] > 0 ? 1 : 0;
+    }
+}
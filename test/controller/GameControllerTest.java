@@ -0,0 +1,89 @@
+package controller;
+
+import model.Board;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import storage.Durability;
+import storage.GameStorage;
+import verifier.BoardVerifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GameControllerTest {
+
+    private Path dir;
+    private GameStorage storage;
+    private GameController controller;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("controller");
+        storage = new GameStorage(dir, Durability.NONE);
+        controller = new GameController(storage, new BoardVerifier());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        storage.flushPendingWrites();
+        try (Stream<Path> walk = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) walk.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    // Resume, play, then the unfinished game is deleted and a new one started (return to menu, new game).
+    @Test
+    public void moveLogStartsOverWhenTheUnfinishedGameIsCleared() throws IOException {
+        Board old = new Board();
+        storage.ensureFolderStructure();
+        storage.saveCurrentBoard(old);
+        controller.resumeTrackingExistingGame(old);
+        controller.applyMove(old, 1, 1, 5);
+        controller.applyMove(old, 2, 2, 6);
+
+        storage.clearIncompleteFolder();
+        Board fresh = new Board();
+        fresh.set(0, 0, 9);
+        controller.applyMove(fresh, 3, 3, 7);
+
+        controller.undo(fresh);
+        assertEquals(0, fresh.get(2, 2));
+        assertEquals(9, fresh.get(0, 0));
+        assertNothingToUndo(fresh);
+    }
+
+    @Test
+    public void newGameHasFixedCellsAndAnEmptyLog() throws IOException {
+        Board old = new Board();
+        controller.startTrackingNewOrLoadedGame(old);
+        controller.applyMove(old, 1, 1, 5);
+
+        Board fresh = new Board();
+        fresh.set(0, 0, 9);
+        controller.startTrackingNewOrLoadedGame(fresh);
+        assertTrue(controller.isFixedCell(1, 1));
+        assertFalse(controller.isFixedCell(3, 3));
+        assertNothingToUndo(fresh);
+    }
+
+    // Undo must not reach back into moves of an earlier game.
+    private void assertNothingToUndo(Board board) throws IOException {
+        try {
+            controller.undo(board);
+            fail("undo offered a move from an earlier game");
+        } catch (IllegalStateException expected) {
+            // "No moves to undo."
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package logging;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import storage.Durability;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MoveJournalTest {
+
+    private Path dir;
+    private Path logPath;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("movelog");
+        logPath = dir.resolve("incomplete").resolve("current.log");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) walk.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    @Test
+    public void textLogStartsOverAfterDeleteAndReopen() throws IOException {
+        appendDeleteAppend(new MoveLog(logPath));
+    }
+
+    @Test
+    public void binaryLogStartsOverAfterDeleteAndReopen() throws IOException {
+        MappedMoveLog log = new MappedMoveLog(logPath, Durability.NONE);
+        try {
+            appendDeleteAppend(log);
+        } finally {
+            log.close();
+        }
+    }
+
+    // Two moves of an old game, the log deleted (clearing the incomplete folder), one move of a new game.
+    private void appendDeleteAppend(MoveJournal log) throws IOException {
+        log.ensureExists();
+        log.append(new MoveRecord(1, 1, 5, 0));
+        log.append(new MoveRecord(2, 2, 6, 0));
+        Files.delete(logPath);
+        log.reopen();
+
+        MoveRecord move = new MoveRecord(3, 3, 7, 0);
+        log.append(move);
+        assertEquals(1, log.size());
+        assertEquals(move.toLogLine(), log.popLast().toLogLine());
+        assertTrue(log.isEmpty());
+    }
+}